@@ -0,0 +1,67 @@
+package com.rtugeek.android.colorseekbar.benchmark;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full color table rebuild, what ColorSeekBar.cacheColors() does on every setColorSeeds() and setMaxPosition().
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class CacheColorsBenchmark {
+    @Param({"100", "10000", "1000000"})
+    int maxPosition;
+
+    @Param({"2", "11", "1000"})
+    int seedCount;
+
+    /**
+     * ColorGradient.INTERPOLATION_SRGB, _LINEAR and _OKLAB.
+     */
+    @Param({"0", "1", "2"})
+    int interpolation;
+
+    private ColorGradient mGradient;
+    private int[] mColors;
+
+    @Setup
+    public void setUp() {
+        mGradient = new ColorGradient(Seeds.create(seedCount), maxPosition, interpolation);
+        mColors = new int[mGradient.getColorCount()];
+    }
+
+    @Benchmark
+    public int[] cacheColors() {
+        mGradient.fill(mColors);
+        return mColors;
+    }
+
+    /**
+     * One float interpolation per position, the path fill() replaced.
+     */
+    @Benchmark
+    public int[] cacheColorsPerPosition() {
+        int[] colors = mColors;
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = mGradient.colorAt(i);
+        }
+        return colors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rtugeek.android.colorseekbar.benchmark;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two branches of ColorSeekBar.getColor(boolean): a table read once the colors are cached,
+ * and computing the color from the seeds ("pick mode") before that.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class GetColorBenchmark {
+    private static final int MAX_POSITION = 10000;
+    private static final int ALPHA = 0x80;
+
+    @Param({"false", "true"})
+    boolean withAlpha;
+
+    private ColorGradient mGradient;
+    private int[] mColors;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        mGradient = new ColorGradient(Seeds.DEFAULT, MAX_POSITION);
+        mColors = new int[mGradient.getColorCount()];
+        mGradient.fill(mColors);
+    }
+
+    @Benchmark
+    public int cached() {
+        mPosition = (mPosition + 7919) % (MAX_POSITION + 1);
+        return applyAlpha(mColors[mPosition]);
+    }
+
+    @Benchmark
+    public int pickMode() {
+        mPosition = (mPosition + 7919) % (MAX_POSITION + 1);
+        return applyAlpha(mGradient.colorAt(mPosition));
+    }
+
+    private int applyAlpha(int color) {
+        if (withAlpha) {
+            return (ALPHA << 24) | (color & 0x00FFFFFF);
+        }
+        return color;
+    }
+}
@@ -0,0 +1,83 @@
+package com.rtugeek.android.colorseekbar.benchmark;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coloring a heatmap of 1M samples with the default seeds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class MapValuesBenchmark {
+    private static final int SAMPLES = 1000000;
+
+    @Param({"255", "100000"})
+    int maxPosition;
+
+    private ColorGradient mGradient;
+    private float[] mValues;
+    private int[] mColors;
+    private ForkJoinPool mPool;
+
+    @Setup
+    public void setUp() {
+        mGradient = new ColorGradient(Seeds.DEFAULT, maxPosition);
+        Random random = new Random(1);
+        mValues = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            mValues[i] = random.nextFloat();
+        }
+        mColors = new int[SAMPLES];
+        mPool = new ForkJoinPool();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mPool.shutdown();
+    }
+
+    @Benchmark
+    public int[] map() {
+        mGradient.map(mValues, 0, 1, mColors);
+        return mColors;
+    }
+
+    @Benchmark
+    public int[] mapParallel() {
+        mGradient.map(mValues, 0, 1, mColors, mPool);
+        return mColors;
+    }
+
+    /**
+     * One colorAtFraction per sample, what callers did before map().
+     */
+    @Benchmark
+    public int[] colorAtFractionPerValue() {
+        float[] values = mValues;
+        int[] colors = mColors;
+        for (int i = 0; i < values.length; i++) {
+            colors[i] = mGradient.colorAtFraction(values[i]);
+        }
+        return colors;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rtugeek.android.colorseekbar.benchmark;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing one color from the seeds, what ColorSeekBar.pickColor() does per position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class PickColorBenchmark {
+    private static final int MAX_POSITION = 10000;
+
+    @Param({"2", "11", "100", "1000"})
+    int seedCount;
+
+    private ColorGradient mGradient;
+    private int mPosition;
+
+    @Setup
+    public void setUp() {
+        mGradient = new ColorGradient(Seeds.create(seedCount), MAX_POSITION);
+    }
+
+    @Benchmark
+    public int pickColor() {
+        //odd stride so consecutive calls land in different segments
+        mPosition = (mPosition + 7919) % (MAX_POSITION + 1);
+        return mGradient.colorAt(mPosition);
+    }
+}
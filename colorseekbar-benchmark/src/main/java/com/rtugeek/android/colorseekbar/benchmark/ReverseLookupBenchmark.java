@@ -0,0 +1,90 @@
+package com.rtugeek.android.colorseekbar.benchmark;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+import com.rtugeek.android.colorseekbar.core.ColorNearestIndex;
+import com.rtugeek.android.colorseekbar.core.ColorPositionIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ColorSeekBar.setColor() and getColorIndexPosition(): exact lookup through the position index,
+ * nearest lookup through the grid index, and building both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class ReverseLookupBenchmark {
+    private static final int QUERIES = 1024;
+
+    @Param({"100", "10000", "1000000"})
+    int maxPosition;
+
+    private int[] mColors;
+    private final ColorPositionIndex mPositionIndex = new ColorPositionIndex();
+    private final ColorNearestIndex mNearestIndex = new ColorNearestIndex();
+    private final int[] mHits = new int[QUERIES];
+    private final int[] mMisses = new int[QUERIES];
+    private int mQuery;
+
+    @Setup
+    public void setUp() {
+        ColorGradient gradient = new ColorGradient(Seeds.DEFAULT, maxPosition);
+        mColors = new int[gradient.getColorCount()];
+        gradient.fill(mColors);
+        mPositionIndex.build(mColors, mColors.length);
+        mNearestIndex.build(mColors, mColors.length);
+        Random random = new Random(1);
+        for (int i = 0; i < QUERIES; i++) {
+            mHits[i] = mColors[random.nextInt(mColors.length)];
+            mMisses[i] = 0xFF000000 | random.nextInt(0x1000000);
+        }
+    }
+
+    @Benchmark
+    public int exactHit() {
+        mQuery = (mQuery + 1) & (QUERIES - 1);
+        return mPositionIndex.get(mHits[mQuery]);
+    }
+
+    @Benchmark
+    public int exactMiss() {
+        mQuery = (mQuery + 1) & (QUERIES - 1);
+        return mPositionIndex.get(mMisses[mQuery]);
+    }
+
+    @Benchmark
+    public int nearest() {
+        mQuery = (mQuery + 1) & (QUERIES - 1);
+        return mNearestIndex.find(mMisses[mQuery]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ColorPositionIndex buildPositionIndex() {
+        mPositionIndex.build(mColors, mColors.length);
+        return mPositionIndex;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ColorNearestIndex buildNearestIndex() {
+        mNearestIndex.build(mColors, mColors.length);
+        return mNearestIndex;
+    }
+}
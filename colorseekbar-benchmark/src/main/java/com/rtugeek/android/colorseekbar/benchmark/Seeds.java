@@ -0,0 +1,25 @@
+package com.rtugeek.android.colorseekbar.benchmark;
+
+import java.util.Random;
+
+final class Seeds {
+    static final int[] DEFAULT = new int[]{0xFF000000, 0xFF9900FF, 0xFF0000FF, 0xFF00FF00, 0xFF00FFFF, 0xFFFF0000, 0xFFFF00FF, 0xFFFF6600, 0xFFFFFF00, 0xFFFFFFFF, 0xFF000000};
+
+    private Seeds() {
+    }
+
+    /**
+     * @return the default ColorSeekBar seeds for 11, random opaque seeds with a fixed seed otherwise
+     */
+    static int[] create(int count) {
+        if (count == DEFAULT.length) {
+            return DEFAULT.clone();
+        }
+        Random random = new Random(count);
+        int[] seeds = new int[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = 0xFF000000 | random.nextInt(0x1000000);
+        }
+        return seeds;
+    }
+}
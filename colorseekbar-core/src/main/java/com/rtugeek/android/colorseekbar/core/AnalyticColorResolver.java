@@ -0,0 +1,29 @@
+package com.rtugeek.android.colorseekbar.core;
+
+final class AnalyticColorResolver extends ColorResolver {
+    private final ColorGradient mGradient;
+
+    AnalyticColorResolver(ColorGradient gradient) {
+        mGradient = gradient;
+    }
+
+    @Override
+    public int colorAt(int position) {
+        return mGradient.colorAt(position);
+    }
+
+    @Override
+    public int getColorCount() {
+        return mGradient.getColorCount();
+    }
+
+    @Override
+    public int getStrategy() {
+        return ANALYTIC;
+    }
+
+    @Override
+    public long getTableBytes() {
+        return 0;
+    }
+}
@@ -0,0 +1,425 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable and thread-safe color gradient: seeds spread evenly over positions 0..maxPosition, colors are packed ARGB.
+ * This is the color math behind ColorSeekBar, usable off the UI thread and outside Android.
+ */
+public final class ColorGradient {
+    /**
+     * Mix the sRGB channel values, what Android's LinearGradient does. Default.
+     */
+    public static final int INTERPOLATION_SRGB = 0;
+    /**
+     * Mix linear light intensities, brighter and less muddy midpoints than sRGB.
+     */
+    public static final int INTERPOLATION_LINEAR = 1;
+    /**
+     * Mix in the OKLab perceptual color space, even lightness and hue steps. Tables take several times as long to
+     * build as sRGB ones, see colorseekbar-benchmark.
+     */
+    public static final int INTERPOLATION_OKLAB = 2;
+    /**
+     * Values per task when {@link #map(float[], float, float, int[], ForkJoinPool)} splits an array.
+     */
+    public static final int MAP_CHUNK_SIZE = 16384;
+    /**
+     * Below this many positions per seed segment {@link #fill(int[], int, int)} computes every position on its own.
+     */
+    private static final int MIN_POSITIONS_PER_SEGMENT = 4;
+
+    private final int[] mSeeds;
+    private final int mMaxPosition;
+    private final int mInterpolation;
+    /**
+     * 3 components per seed in the interpolation space, null for sRGB.
+     */
+    private final float[] mComponents;
+    private final int mHashCode;
+
+    /**
+     * @param seeds       at least one color, copied
+     * @param maxPosition the last position, 0 or more
+     */
+    public ColorGradient(int[] seeds, int maxPosition) {
+        this(seeds, maxPosition, INTERPOLATION_SRGB);
+    }
+
+    /**
+     * @param seeds         at least one color, copied
+     * @param maxPosition   the last position, 0 or more
+     * @param interpolation {@link #INTERPOLATION_SRGB}, {@link #INTERPOLATION_LINEAR} or {@link #INTERPOLATION_OKLAB}
+     */
+    public ColorGradient(int[] seeds, int maxPosition, int interpolation) {
+        if (seeds == null || seeds.length == 0) {
+            throw new IllegalArgumentException("seeds must contain at least one color");
+        }
+        if (maxPosition < 0) {
+            throw new IllegalArgumentException("maxPosition must not be negative: " + maxPosition);
+        }
+        if (interpolation < INTERPOLATION_SRGB || interpolation > INTERPOLATION_OKLAB) {
+            throw new IllegalArgumentException("unknown interpolation: " + interpolation);
+        }
+        mSeeds = seeds.clone();
+        mMaxPosition = maxPosition;
+        mInterpolation = interpolation;
+        if (interpolation == INTERPOLATION_SRGB) {
+            mComponents = null;
+        } else {
+            mComponents = new float[mSeeds.length * 3];
+            for (int i = 0; i < mSeeds.length; i++) {
+                ColorSpaces.fromColor(interpolation, mSeeds[i], mComponents, i * 3);
+            }
+        }
+        mHashCode = 31 * (31 * Arrays.hashCode(mSeeds) + maxPosition) + interpolation;
+    }
+
+    /**
+     * @return a copy of the seeds
+     */
+    public int[] getSeeds() {
+        return mSeeds.clone();
+    }
+
+    public int getSeedCount() {
+        return mSeeds.length;
+    }
+
+    public int getSeed(int index) {
+        return mSeeds[index];
+    }
+
+    public int getMaxPosition() {
+        return mMaxPosition;
+    }
+
+    /**
+     * @return {@link #INTERPOLATION_SRGB}, {@link #INTERPOLATION_LINEAR} or {@link #INTERPOLATION_OKLAB}
+     */
+    public int getInterpolation() {
+        return mInterpolation;
+    }
+
+    /**
+     * @param segment segment i spans seeds i and i + 1, the last seed alone makes the last segment
+     * @return the first position of segment, {@link #getColorCount()} past the last segment
+     */
+    public int getSegmentStart(int segment) {
+        int segments = mSeeds.length - 1;
+        if (segment <= 0) {
+            return 0;
+        }
+        if (segment > segments) {
+            return getColorCount();
+        }
+        return (int) (((long) segment * mMaxPosition + segments - 1) / segments);
+    }
+
+    /**
+     * @return a gradient with seed index replaced, colors only change in {@link #getSeedRange(int)}
+     */
+    public ColorGradient withSeed(int index, int color) {
+        int[] seeds = mSeeds.clone();
+        seeds[index] = color;
+        return new ColorGradient(seeds, mMaxPosition, mInterpolation);
+    }
+
+    /**
+     * The positions whose color depends on seed index, with one position of margin for float rounding at the segment ends.
+     *
+     * @return {from, to}, to exclusive
+     */
+    public int[] getSeedRange(int index) {
+        if (index < 0 || index >= mSeeds.length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", seeds: " + mSeeds.length);
+        }
+        int from = Math.max(0, getSegmentStart(index - 1) - 1);
+        int to = Math.min(getColorCount(), getSegmentStart(index + 1) + 1);
+        return new int[]{from, to};
+    }
+
+    /**
+     * @return maxPosition + 1
+     */
+    public int getColorCount() {
+        return mMaxPosition + 1;
+    }
+
+    /**
+     * @param position between 0-maxPosition
+     * @return color, opaque except at the ends where the seed is returned as is
+     */
+    public int colorAt(int position) {
+        if (mMaxPosition == 0) {
+            return mSeeds[0];
+        }
+        return colorAtFraction((float) position / mMaxPosition);
+    }
+
+    /**
+     * @param fraction between 0-1, clamped
+     * @return color, opaque except at the ends where the seed is returned as is
+     */
+    public int colorAtFraction(float fraction) {
+        int[] seeds = mSeeds;
+        if (fraction <= 0.0) {
+            return seeds[0];
+        }
+        if (fraction >= 1 || seeds.length == 1) {
+            return seeds[seeds.length - 1];
+        }
+
+        float colorPosition = fraction * (seeds.length - 1);
+        int i = (int) colorPosition;
+        colorPosition -= i;
+        float[] components = mComponents;
+        if (components != null) {
+            int c = i * 3;
+            return ColorSpaces.toColor(mInterpolation,
+                    components[c] + (components[c + 3] - components[c]) * colorPosition,
+                    components[c + 1] + (components[c + 4] - components[c + 1]) * colorPosition,
+                    components[c + 2] + (components[c + 5] - components[c + 2]) * colorPosition);
+        }
+        int c0 = seeds[i];
+        int c1 = seeds[i + 1];
+        int red = mix((c0 >> 16) & 0xFF, (c1 >> 16) & 0xFF, colorPosition);
+        int green = mix((c0 >> 8) & 0xFF, (c1 >> 8) & 0xFF, colorPosition);
+        int blue = mix(c0 & 0xFF, c1 & 0xFF, colorPosition);
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Fill out[0..maxPosition] with the color of every position.
+     *
+     * @param out at least {@link #getColorCount()} long
+     */
+    public void fill(int[] out) {
+        fill(out, 0, mMaxPosition + 1);
+    }
+
+    /**
+     * Fill out[from..to) with the colors of positions from..to-1.
+     *
+     * @param out
+     * @param from first position, inclusive
+     * @param to   last position, exclusive
+     */
+    public void fill(int[] out, int from, int to) {
+        if (from < 0 || to > mMaxPosition + 1 || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", maxPosition: " + mMaxPosition);
+        }
+        //the fixed-point walk reproduces sRGB rounding only, the other spaces go through their tables per position.
+        //Its setup per segment doesn't pay off for short segments
+        if (mMaxPosition == 0 || mSeeds.length == 1 || mComponents != null
+                || mMaxPosition < MIN_POSITIONS_PER_SEGMENT * (mSeeds.length - 1L)) {
+            for (int i = from; i < to; i++) {
+                out[i] = colorAt(i);
+            }
+            return;
+        }
+        //the ends return the seeds with their alpha
+        if (from == 0 && to > 0) {
+            out[0] = colorAt(0);
+        }
+        if (to == mMaxPosition + 1 && from <= mMaxPosition) {
+            out[mMaxPosition] = colorAt(mMaxPosition);
+        }
+        fillSegments(out, Math.max(from, 1), Math.min(to, mMaxPosition));
+    }
+
+    /**
+     * Fill out[0..width) with the gradient stretched over width pixels, pixel x is the color at fraction x / (width - 1).
+     * This is what the bar shows at that width, in any resolution independent of maxPosition.
+     *
+     * @param out   at least width long
+     * @param width 1 or more
+     */
+    public void fillStrip(int[] out, int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width must be positive: " + width);
+        }
+        ColorGradient strip = width - 1 == mMaxPosition ? this : new ColorGradient(mSeeds, width - 1, mInterpolation);
+        strip.fill(out);
+    }
+
+    /**
+     * Color data, e.g. a heatmap: values[i] is shown at position round((values[i] - min) / (max - min) * maxPosition),
+     * clamped, and out[i] gets the color of that position. NaN maps like min. Raise maxPosition for finer steps.
+     * Colors come from the {@link ColorTableCache} table, unless it would be larger than both
+     * {@link ColorResolver#EAGER_MAX_COLORS} and values. Nothing is allocated per value.
+     *
+     * @param out at least values.length long
+     */
+    public void map(float[] values, float min, float max, int[] out) {
+        checkMap(values.length, min, max, out);
+        ColorMapTask.map(this, mapTable(values.length), values, min, max, out, 0, values.length);
+    }
+
+    /**
+     * @see #map(float[], float, float, int[])
+     */
+    public void map(double[] values, double min, double max, int[] out) {
+        checkMap(values.length, min, max, out);
+        ColorMapTask.map(this, mapTable(values.length), values, min, max, out, 0, values.length);
+    }
+
+    /**
+     * {@link #map(float[], float, float, int[])} in chunks of {@link #MAP_CHUNK_SIZE} values run in pool, same colors.
+     * Returns when every value is mapped. ForkJoinPool needs API 21 on Android.
+     */
+    public void map(float[] values, float min, float max, int[] out, ForkJoinPool pool) {
+        checkMap(values.length, min, max, out);
+        pool.invoke(new ColorMapTask(this, mapTable(values.length), values, null, min, max, out, 0, values.length));
+    }
+
+    /**
+     * @see #map(float[], float, float, int[], ForkJoinPool)
+     */
+    public void map(double[] values, double min, double max, int[] out, ForkJoinPool pool) {
+        checkMap(values.length, min, max, out);
+        pool.invoke(new ColorMapTask(this, mapTable(values.length), null, values, min, max, out, 0, values.length));
+    }
+
+    private static void checkMap(int count, double min, double max, int[] out) {
+        if (!(max > min) || Double.isInfinite(max - min)) {
+            throw new IllegalArgumentException("need a finite min < max, min: " + min + ", max: " + max);
+        }
+        if (out.length < count) {
+            throw new IllegalArgumentException("out holds " + out.length + " colors, need " + count);
+        }
+    }
+
+    /**
+     * @param count values to map
+     * @return colors of every position, null if a table costs more than {@link #colorAt(int)} for count values
+     */
+    private int[] mapTable(int count) {
+        if (getColorCount() > ColorResolver.EAGER_MAX_COLORS && getColorCount() > count) {
+            return null;
+        }
+        return ((EagerColorResolver) ColorTableCache.getDefault().get(this)).getColors();
+    }
+
+    /**
+     * Walk every seed segment with exact integer stepping instead of a float division and three Math.round per position.
+     * channel = start + round(num * delta / maxPosition), num being the position's offset into the segment scaled by
+     * maxPosition, is tracked as quotient and remainder of (2 * num * delta + maxPosition) / (2 * maxPosition).
+     * The float path of {@link #colorAtFraction(float)} can round differently only when the exact value is within its
+     * error of a tie or of a segment boundary, those few positions are computed by {@link #colorAt(int)} so both
+     * paths stay bit-identical.
+     */
+    private void fillSegments(int[] out, int from, int to) {
+        int[] seeds = mSeeds;
+        int segments = seeds.length - 1;
+        long max = mMaxPosition;
+        long denominator = 2 * max;
+        //float error bounds, in remainder units and in num units, twice what single precision rounding can add up to
+        long remainderMargin = ((255L * segments + 512) * denominator >> 22) + 1;
+        long numMargin = ((segments + 1L) * max >> 21) + 1;
+        long remainderLow = remainderMargin;
+        long remainderHigh = denominator - remainderMargin;
+        long numLow = numMargin;
+        long numHigh = max - numMargin;
+
+        int position = from;
+        while (position < to) {
+            //the segment holding position, segments without a position of their own are skipped
+            int segment = (int) ((long) position * segments / max);
+            int segmentEnd = (int) Math.min(to, ((segment + 1L) * max + segments - 1) / segments);
+            int c0 = seeds[segment];
+            int c1 = seeds[segment + 1];
+            int red0 = (c0 >> 16) & 0xFF;
+            int green0 = (c0 >> 8) & 0xFF;
+            int blue0 = c0 & 0xFF;
+            long redDelta = ((c1 >> 16) & 0xFF) - red0;
+            long greenDelta = ((c1 >> 8) & 0xFF) - green0;
+            long blueDelta = (c1 & 0xFF) - blue0;
+
+            long num = (long) position * segments - segment * max;
+            long redNumerator = 2 * num * redDelta + max;
+            long red = floorDiv(redNumerator, denominator);
+            long redRemainder = redNumerator - red * denominator;
+            long greenNumerator = 2 * num * greenDelta + max;
+            long green = floorDiv(greenNumerator, denominator);
+            long greenRemainder = greenNumerator - green * denominator;
+            long blueNumerator = 2 * num * blueDelta + max;
+            long blue = floorDiv(blueNumerator, denominator);
+            long blueRemainder = blueNumerator - blue * denominator;
+
+            long redStep = 2 * segments * redDelta;
+            long redStepQuotient = floorDiv(redStep, denominator);
+            long redStepRemainder = redStep - redStepQuotient * denominator;
+            long greenStep = 2 * segments * greenDelta;
+            long greenStepQuotient = floorDiv(greenStep, denominator);
+            long greenStepRemainder = greenStep - greenStepQuotient * denominator;
+            long blueStep = 2 * segments * blueDelta;
+            long blueStepQuotient = floorDiv(blueStep, denominator);
+            long blueStepRemainder = blueStep - blueStepQuotient * denominator;
+            red += red0;
+            green += green0;
+            blue += blue0;
+
+            for (; position < segmentEnd; position++) {
+                if (redRemainder < remainderLow || redRemainder > remainderHigh
+                        || greenRemainder < remainderLow || greenRemainder > remainderHigh
+                        || blueRemainder < remainderLow || blueRemainder > remainderHigh
+                        || num < numLow || num > numHigh) {
+                    out[position] = colorAt(position);
+                } else {
+                    out[position] = 0xFF000000 | ((int) red << 16) | ((int) green << 8) | (int) blue;
+                }
+                num += segments;
+                //carry is -1 once a remainder reaches the denominator, without a branch
+                redRemainder += redStepRemainder;
+                long carry = (denominator - 1 - redRemainder) >> 63;
+                redRemainder -= denominator & carry;
+                red += redStepQuotient - carry;
+                greenRemainder += greenStepRemainder;
+                carry = (denominator - 1 - greenRemainder) >> 63;
+                greenRemainder -= denominator & carry;
+                green += greenStepQuotient - carry;
+                blueRemainder += blueStepRemainder;
+                carry = (denominator - 1 - blueRemainder) >> 63;
+                blueRemainder -= denominator & carry;
+                blue += blueStepQuotient - carry;
+            }
+        }
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            q--;
+        }
+        return q;
+    }
+
+    private static int mix(int start, int end, float position) {
+        return start + Math.round(position * (end - start));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ColorGradient)) {
+            return false;
+        }
+        ColorGradient other = (ColorGradient) o;
+        return mHashCode == other.mHashCode && mMaxPosition == other.mMaxPosition
+                && mInterpolation == other.mInterpolation && Arrays.equals(mSeeds, other.mSeeds);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "ColorGradient{seeds=" + mSeeds.length + ", maxPosition=" + mMaxPosition + ", interpolation=" + mInterpolation + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Maps values[from..to) to colors, halving the range until it is at most {@link ColorGradient#MAP_CHUNK_SIZE} long.
+ * Either the floats or the doubles are set.
+ */
+final class ColorMapTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final ColorGradient mGradient;
+    /**
+     * Colors of every position, null to compute them.
+     */
+    private final int[] mTable;
+    private final float[] mFloats;
+    private final double[] mDoubles;
+    private final double mMin;
+    private final double mMax;
+    private final int[] mOut;
+    private final int mFrom;
+    private final int mTo;
+
+    ColorMapTask(ColorGradient gradient, int[] table, float[] floats, double[] doubles, double min, double max,
+                 int[] out, int from, int to) {
+        mGradient = gradient;
+        mTable = table;
+        mFloats = floats;
+        mDoubles = doubles;
+        mMin = min;
+        mMax = max;
+        mOut = out;
+        mFrom = from;
+        mTo = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (mTo - mFrom <= ColorGradient.MAP_CHUNK_SIZE) {
+            if (mFloats != null) {
+                map(mGradient, mTable, mFloats, (float) mMin, (float) mMax, mOut, mFrom, mTo);
+            } else {
+                map(mGradient, mTable, mDoubles, mMin, mMax, mOut, mFrom, mTo);
+            }
+            return;
+        }
+        int middle = (mFrom + mTo) >>> 1;
+        invokeAll(new ColorMapTask(mGradient, mTable, mFloats, mDoubles, mMin, mMax, mOut, mFrom, middle),
+                new ColorMapTask(mGradient, mTable, mFloats, mDoubles, mMin, mMax, mOut, middle, mTo));
+    }
+
+    static void map(ColorGradient gradient, int[] table, float[] values, float min, float max, int[] out, int from, int to) {
+        int maxPosition = gradient.getMaxPosition();
+        //in double, max - min overflows float for domains such as (-Float.MAX_VALUE, Float.MAX_VALUE)
+        double scale = maxPosition / ((double) max - min);
+        for (int i = from; i < to; i++) {
+            //NaN casts to 0, infinities to the int range
+            int position = (int) (((double) values[i] - min) * scale + 0.5);
+            if (position < 0) {
+                position = 0;
+            } else if (position > maxPosition) {
+                position = maxPosition;
+            }
+            out[i] = table != null ? table[position] : gradient.colorAt(position);
+        }
+    }
+
+    static void map(ColorGradient gradient, int[] table, double[] values, double min, double max, int[] out, int from, int to) {
+        int maxPosition = gradient.getMaxPosition();
+        double scale = maxPosition / (max - min);
+        for (int i = from; i < to; i++) {
+            int position = (int) ((values[i] - min) * scale + 0.5);
+            if (position < 0) {
+                position = 0;
+            } else if (position > maxPosition) {
+                position = maxPosition;
+            }
+            out[i] = table != null ? table[position] : gradient.colorAt(position);
+        }
+    }
+}
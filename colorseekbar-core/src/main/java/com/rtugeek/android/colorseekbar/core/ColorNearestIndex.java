@@ -0,0 +1,167 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import java.util.Arrays;
+
+/**
+ * Quantized 16x16x16 RGB grid over the cached colors, used to find the RGB-nearest position of a
+ * color that is not an exact entry. Distances are weighted euclidean over the sRGB channel values
+ * (2R, 4G, 3B), normalized to 0..255. This is not a perceptual metric, the nearest entry is not
+ * always the one that looks most alike.
+ * Not thread-safe, the arrays are reused by every build and the last match is kept in fields.
+ */
+public class ColorNearestIndex {
+    private static final int CELL_BITS = 4;
+    private static final int CELL_SIZE = 1 << CELL_BITS;
+    private static final int GRID = 256 / CELL_SIZE;
+    private static final int WEIGHT_R = 2;
+    private static final int WEIGHT_G = 4;
+    private static final int WEIGHT_B = 3;
+    private static final int WEIGHT_MIN = 2;
+    private static final float WEIGHT_NORM = 3f;
+
+    private final int[] mCellStart = new int[GRID * GRID * GRID + 1];
+    private int[] mPositions = new int[0];
+    private int[] mColors = new int[0];
+
+    private int mMatchPosition;
+    private int mMatchDistanceSquared;
+
+    /**
+     * @param colors cached colors
+     * @param count  number of valid colors in the array
+     */
+    public void build(int[] colors, int count) {
+        build(ColorResolver.wrap(colors, count));
+    }
+
+    /**
+     * Index every position of the resolver, runs of the same color only keep their first position.
+     *
+     * @param resolver
+     */
+    public void build(ColorResolver resolver) {
+        int count = resolver.getColorCount();
+        int[] cellStart = mCellStart;
+        Arrays.fill(cellStart, 0);
+        int runs = 0;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int color = resolver.colorAt(i);
+            if (i == 0 || color != previous) {
+                cellStart[cellOf(color) + 1]++;
+                runs++;
+            }
+            previous = color;
+        }
+        if (mPositions.length != runs) {
+            mPositions = new int[runs];
+            mColors = new int[runs];
+        }
+        for (int c = 1; c < cellStart.length; c++) {
+            cellStart[c] += cellStart[c - 1];
+        }
+        //fill each cell in ascending position order, cellStart[c] is used as the write cursor
+        for (int i = 0; i < count; i++) {
+            int color = resolver.colorAt(i);
+            if (i > 0 && color == previous) {
+                continue;
+            }
+            previous = color;
+            int slot = cellStart[cellOf(color)]++;
+            mPositions[slot] = i;
+            mColors[slot] = color;
+        }
+        //restore the cell starts shifted by the cursors
+        for (int c = cellStart.length - 1; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    /**
+     * @param color
+     * @return the position nearest in weighted sRGB distance, -1 if the index is empty. Ties resolve to the lowest position.
+     * The distance is available from {@link #getMatchDistance()} afterwards.
+     */
+    public int find(int color) {
+        mMatchPosition = -1;
+        mMatchDistanceSquared = Integer.MAX_VALUE;
+        if (mPositions.length == 0) {
+            return -1;
+        }
+        int r = (color >> 16) & 0xFF;
+        int g = (color >> 8) & 0xFF;
+        int b = color & 0xFF;
+        int cr = r >> CELL_BITS;
+        int cg = g >> CELL_BITS;
+        int cb = b >> CELL_BITS;
+        for (int ring = 0; ring < GRID; ring++) {
+            if (mMatchPosition != -1) {
+                //every color in this ring is at least (ring - 1) cells + 1 away on one channel
+                int gap = (ring - 1) * CELL_SIZE + 1;
+                if (mMatchDistanceSquared < WEIGHT_MIN * gap * gap) {
+                    break;
+                }
+            }
+            searchRing(r, g, b, cr, cg, cb, ring);
+        }
+        return mMatchPosition;
+    }
+
+    /**
+     * @return the distance of the last {@link #find(int)} result, between 0 and 255
+     */
+    public float getMatchDistance() {
+        if (mMatchPosition == -1) {
+            return Float.NaN;
+        }
+        return (float) Math.sqrt(mMatchDistanceSquared) / WEIGHT_NORM;
+    }
+
+    private void searchRing(int r, int g, int b, int cr, int cg, int cb, int ring) {
+        for (int dr = -ring; dr <= ring; dr++) {
+            int x = cr + dr;
+            if (x < 0 || x >= GRID) {
+                continue;
+            }
+            for (int dg = -ring; dg <= ring; dg++) {
+                int y = cg + dg;
+                if (y < 0 || y >= GRID) {
+                    continue;
+                }
+                boolean onShell = Math.abs(dr) == ring || Math.abs(dg) == ring;
+                int step = onShell || ring == 0 ? 1 : ring * 2;
+                for (int db = -ring; db <= ring; db += step) {
+                    int z = cb + db;
+                    if (z < 0 || z >= GRID) {
+                        continue;
+                    }
+                    searchCell((x * GRID + y) * GRID + z, r, g, b);
+                }
+            }
+        }
+    }
+
+    private void searchCell(int cell, int r, int g, int b) {
+        int end = mCellStart[cell + 1];
+        for (int i = mCellStart[cell]; i < end; i++) {
+            int c = mColors[i];
+            int dr = ((c >> 16) & 0xFF) - r;
+            int dg = ((c >> 8) & 0xFF) - g;
+            int db = (c & 0xFF) - b;
+            int d = WEIGHT_R * dr * dr + WEIGHT_G * dg * dg + WEIGHT_B * db * db;
+            int position = mPositions[i];
+            if (d < mMatchDistanceSquared || (d == mMatchDistanceSquared && position < mMatchPosition)) {
+                mMatchDistanceSquared = d;
+                mMatchPosition = position;
+            }
+        }
+    }
+
+    private static int cellOf(int color) {
+        int x = (color >> (16 + CELL_BITS)) & (GRID - 1);
+        int y = (color >> (8 + CELL_BITS)) & (GRID - 1);
+        int z = (color >> CELL_BITS) & (GRID - 1);
+        return (x * GRID + y) * GRID + z;
+    }
+}
@@ -0,0 +1,99 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing color -> position map over the cached colors, without boxing.
+ * When a color occurs at several positions, the lowest position is kept.
+ * Not thread-safe, the arrays are reused by every build.
+ */
+public class ColorPositionIndex {
+    private int[] mKeys = new int[0];
+    private int[] mPositions = new int[0];
+    private int mMask;
+
+    /**
+     * @param colors cached colors
+     * @param count  number of valid colors in the array
+     */
+    public void build(int[] colors, int count) {
+        build(ColorResolver.wrap(colors, count));
+    }
+
+    /**
+     * Index every position of the resolver, runs of the same color only take one slot.
+     *
+     * @param resolver
+     */
+    public void build(ColorResolver resolver) {
+        int count = resolver.getColorCount();
+        int runs = 0;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int color = resolver.colorAt(i);
+            if (i == 0 || color != previous) {
+                runs++;
+            }
+            previous = color;
+        }
+
+        int capacity = tableSizeFor(runs);
+        if (mKeys.length != capacity) {
+            mKeys = new int[capacity];
+            mPositions = new int[capacity];
+        }
+        Arrays.fill(mPositions, -1);
+        mMask = capacity - 1;
+        for (int i = 0; i < count; i++) {
+            int color = resolver.colorAt(i);
+            if (i > 0 && color == previous) {
+                continue;
+            }
+            previous = color;
+            int slot = hash(color) & mMask;
+            while (mPositions[slot] != -1 && mKeys[slot] != color) {
+                slot = (slot + 1) & mMask;
+            }
+            if (mPositions[slot] == -1) {
+                mKeys[slot] = color;
+                mPositions[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * @param color
+     * @return the lowest position of the color, -1 if it is not indexed
+     */
+    public int get(int color) {
+        int[] positions = mPositions;
+        if (positions.length == 0) {
+            return -1;
+        }
+        int slot = hash(color) & mMask;
+        int position;
+        while ((position = positions[slot]) != -1) {
+            if (mKeys[slot] == color) {
+                return position;
+            }
+            slot = (slot + 1) & mMask;
+        }
+        return -1;
+    }
+
+    private static int hash(int color) {
+        int h = color * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return a power of two that keeps the load factor at or below 0.5
+     */
+    private static int tableSizeFor(int count) {
+        int capacity = 2;
+        while (capacity < count * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
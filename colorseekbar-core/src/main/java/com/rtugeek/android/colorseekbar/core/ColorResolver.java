@@ -0,0 +1,118 @@
+package com.rtugeek.android.colorseekbar.core;
+
+/**
+ * Resolves the color of every position of a gradient, with one of three strategies:
+ * <ul>
+ * <li>{@link #EAGER}: a table filled up front, immutable and thread-safe once created</li>
+ * <li>{@link #LAZY}: a table filled on demand in chunks of {@link #LAZY_CHUNK_SIZE} positions, confined to one thread</li>
+ * <li>{@link #ANALYTIC}: no table, every color is computed from the seeds in O(1), thread-safe</li>
+ * </ul>
+ * All strategies return exactly {@link ColorGradient#colorAt(int)}.
+ */
+public abstract class ColorResolver {
+    /**
+     * Pick a strategy from the number of colors and the available memory, see {@link #chooseStrategy(int)}.
+     */
+    public static final int AUTO = 0;
+    public static final int EAGER = 1;
+    public static final int LAZY = 2;
+    public static final int ANALYTIC = 3;
+
+    /**
+     * Tables up to this many colors (64KB) are filled eagerly in {@link #AUTO} mode.
+     */
+    public static final int EAGER_MAX_COLORS = 16384;
+    /**
+     * Larger tables are filled lazily as long as they take at most 1/LAZY_MEMORY_FRACTION of the max heap.
+     */
+    public static final int LAZY_MEMORY_FRACTION = 64;
+    public static final int LAZY_CHUNK_SIZE = 1024;
+
+    ColorResolver() {
+    }
+
+    /**
+     * @param position between 0 and {@link #getColorCount()} - 1
+     * @return packed ARGB
+     */
+    public abstract int colorAt(int position);
+
+    public abstract int getColorCount();
+
+    /**
+     * @return {@link #EAGER}, {@link #LAZY} or {@link #ANALYTIC}
+     */
+    public abstract int getStrategy();
+
+    /**
+     * @return bytes held by the color table, 0 without a table
+     */
+    public abstract long getTableBytes();
+
+    /**
+     * Copy the colors of positions 0..count-1 into dest.
+     */
+    public void copyTo(int[] dest, int count) {
+        for (int i = 0; i < count; i++) {
+            dest[i] = colorAt(i);
+        }
+    }
+
+    /**
+     * Resolve an edited gradient, reusing the colors outside positions from..to-1.
+     *
+     * @param gradient same color count as this resolver, colors may only differ in from..to-1
+     * @param from     first changed position, inclusive
+     * @param to       last changed position, exclusive
+     * @return a resolver with the same strategy. This one is left as is, except for eager resolvers returned by
+     * update(): their private table is edited in place and they return themselves, so a series of edits copies
+     * the table once
+     */
+    public ColorResolver update(ColorGradient gradient, int from, int to) {
+        if (gradient.getColorCount() != getColorCount()) {
+            throw new IllegalArgumentException("color count changed: " + getColorCount() + " -> " + gradient.getColorCount());
+        }
+        return create(gradient, getStrategy());
+    }
+
+    /**
+     * @param gradient
+     * @param strategy {@link #AUTO}, {@link #EAGER}, {@link #LAZY} or {@link #ANALYTIC}
+     */
+    public static ColorResolver create(ColorGradient gradient, int strategy) {
+        if (strategy == AUTO) {
+            strategy = chooseStrategy(gradient.getColorCount());
+        }
+        switch (strategy) {
+            case EAGER:
+                return new EagerColorResolver(gradient);
+            case LAZY:
+                return new LazyColorResolver(gradient);
+            case ANALYTIC:
+                return new AnalyticColorResolver(gradient);
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+    /**
+     * Eager up to {@link #EAGER_MAX_COLORS} colors, lazy while the table fits in 1/{@link #LAZY_MEMORY_FRACTION}
+     * of the max heap, analytic above that.
+     */
+    public static int chooseStrategy(int colorCount) {
+        if (colorCount <= EAGER_MAX_COLORS) {
+            return EAGER;
+        }
+        if (colorCount * 4L <= Runtime.getRuntime().maxMemory() / LAZY_MEMORY_FRACTION) {
+            return LAZY;
+        }
+        return ANALYTIC;
+    }
+
+    /**
+     * @return an eager resolver over an existing table, the array is used as is
+     */
+    public static ColorResolver wrap(int[] colors, int count) {
+        return new EagerColorResolver(colors, count);
+    }
+}
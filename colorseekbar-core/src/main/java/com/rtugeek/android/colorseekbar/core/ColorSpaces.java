@@ -0,0 +1,88 @@
+package com.rtugeek.android.colorseekbar.core;
+
+/**
+ * Conversions between packed sRGB colors, linear sRGB and OKLab (https://bottosson.github.io/posts/oklab/).
+ * The sRGB transfer function goes through lookup tables, so converting an interpolated color back costs
+ * a few multiplications and three table reads.
+ */
+final class ColorSpaces {
+    /**
+     * Linear values are quantized to 1/LINEAR_STEPS when encoded, well below one 8 bit step even near black.
+     */
+    private static final int LINEAR_STEPS = 16384;
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+    private static final byte[] LINEAR_TO_SRGB = new byte[LINEAR_STEPS + 1];
+
+    static {
+        for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+            double srgb = i / 255.0;
+            SRGB_TO_LINEAR[i] = (float) (srgb <= 0.04045 ? srgb / 12.92 : Math.pow((srgb + 0.055) / 1.055, 2.4));
+        }
+        for (int i = 0; i < LINEAR_TO_SRGB.length; i++) {
+            double linear = (double) i / LINEAR_STEPS;
+            double srgb = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+            LINEAR_TO_SRGB[i] = (byte) Math.round(srgb * 255);
+        }
+    }
+
+    private ColorSpaces() {
+    }
+
+    static float toLinear(int channel) {
+        return SRGB_TO_LINEAR[channel];
+    }
+
+    /**
+     * @param linear clamped to 0-1
+     * @return sRGB channel 0-255
+     */
+    static int toSrgb(float linear) {
+        if (linear <= 0) {
+            return 0;
+        }
+        if (linear >= 1) {
+            return 255;
+        }
+        return LINEAR_TO_SRGB[(int) (linear * LINEAR_STEPS + 0.5f)] & 0xFF;
+    }
+
+    /**
+     * Write the components of color in the given interpolation space to out[offset..offset+2].
+     */
+    static void fromColor(int interpolation, int color, float[] out, int offset) {
+        float red = toLinear((color >> 16) & 0xFF);
+        float green = toLinear((color >> 8) & 0xFF);
+        float blue = toLinear(color & 0xFF);
+        if (interpolation == ColorGradient.INTERPOLATION_LINEAR) {
+            out[offset] = red;
+            out[offset + 1] = green;
+            out[offset + 2] = blue;
+            return;
+        }
+        //cube roots are only taken once per seed, interpolated colors are converted back with multiplications
+        double l = Math.cbrt(0.4122214708 * red + 0.5363325363 * green + 0.0514459929 * blue);
+        double m = Math.cbrt(0.2119034982 * red + 0.6806995451 * green + 0.1073969566 * blue);
+        double s = Math.cbrt(0.0883024619 * red + 0.2817188376 * green + 0.6299787005 * blue);
+        out[offset] = (float) (0.2104542553 * l + 0.7936177850 * m - 0.0040720468 * s);
+        out[offset + 1] = (float) (1.9779984951 * l - 2.4285922050 * m + 0.4505937099 * s);
+        out[offset + 2] = (float) (0.0259040371 * l + 0.7827717662 * m - 0.8086757660 * s);
+    }
+
+    /**
+     * @return opaque packed sRGB color of components in the given interpolation space, out of gamut values are clamped
+     */
+    static int toColor(int interpolation, float c0, float c1, float c2) {
+        if (interpolation == ColorGradient.INTERPOLATION_OKLAB) {
+            float l = c0 + 0.3963377774f * c1 + 0.2158037573f * c2;
+            float m = c0 - 0.1055613458f * c1 - 0.0638541728f * c2;
+            float s = c0 - 0.0894841775f * c1 - 1.2914855480f * c2;
+            l = l * l * l;
+            m = m * m * m;
+            s = s * s * s;
+            c0 = 4.0767416621f * l - 3.3077115913f * m + 0.2309699292f * s;
+            c1 = -1.2684380046f * l + 2.6097574011f * m - 0.3413193965f * s;
+            c2 = -0.0041960863f * l - 0.7034186147f * m + 1.7076147010f * s;
+        }
+        return 0xFF000000 | (toSrgb(c0) << 16) | (toSrgb(c1) << 8) | toSrgb(c2);
+    }
+}
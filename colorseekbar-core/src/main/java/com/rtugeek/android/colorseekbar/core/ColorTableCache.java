@@ -0,0 +1,120 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shares immutable eager color tables between everyone using the same {@link ColorGradient}, least recently
+ * used tables are evicted once the cache holds more than {@link #getMaxBytes()}. Thread-safe.
+ */
+public final class ColorTableCache {
+    /**
+     * 1MB, 256K colors, e.g. a few hundred bars with maxPosition up to 1000.
+     */
+    public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    private static final ColorTableCache sDefault = new ColorTableCache(DEFAULT_MAX_BYTES);
+
+    private final LinkedHashMap<ColorGradient, ColorResolver> mTables = new LinkedHashMap<>(16, 0.75f, true);
+    private long mMaxBytes;
+    private long mBytes;
+    private int mHitCount;
+    private int mMissCount;
+
+    public ColorTableCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must be >= 0");
+        }
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * @return the cache shared by every ColorSeekBar in the process
+     */
+    public static ColorTableCache getDefault() {
+        return sDefault;
+    }
+
+    /**
+     * @return the shared table of gradient, built on the calling thread if it isn't cached
+     */
+    public ColorResolver get(ColorGradient gradient) {
+        synchronized (this) {
+            ColorResolver table = mTables.get(gradient);
+            if (table != null) {
+                mHitCount++;
+                return table;
+            }
+            mMissCount++;
+        }
+        //build outside the lock, two threads missing the same gradient at once keep the first table
+        ColorResolver table = new EagerColorResolver(gradient);
+        synchronized (this) {
+            ColorResolver cached = mTables.get(gradient);
+            if (cached != null) {
+                return cached;
+            }
+            if (table.getTableBytes() <= mMaxBytes) {
+                mTables.put(gradient, table);
+                mBytes += table.getTableBytes();
+                trimTo(mMaxBytes);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Build the table of gradient ahead of time, e.g. on a background thread during startup.
+     */
+    public void prewarm(ColorGradient gradient) {
+        get(gradient);
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must be >= 0");
+        }
+        mMaxBytes = maxBytes;
+        trimTo(maxBytes);
+    }
+
+    public synchronized long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    /**
+     * @return bytes held by the cached tables
+     */
+    public synchronized long getBytes() {
+        return mBytes;
+    }
+
+    public synchronized int size() {
+        return mTables.size();
+    }
+
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * Drop every table, tables already handed out stay valid.
+     */
+    public synchronized void clear() {
+        mTables.clear();
+        mBytes = 0;
+    }
+
+    private void trimTo(long maxBytes) {
+        Iterator<Map.Entry<ColorGradient, ColorResolver>> iterator = mTables.entrySet().iterator();
+        while (mBytes > maxBytes && iterator.hasNext()) {
+            mBytes -= iterator.next().getValue().getTableBytes();
+            iterator.remove();
+        }
+    }
+}
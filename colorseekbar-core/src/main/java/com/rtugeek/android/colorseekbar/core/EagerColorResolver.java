@@ -0,0 +1,78 @@
+package com.rtugeek.android.colorseekbar.core;
+
+final class EagerColorResolver extends ColorResolver {
+    private final int[] mColors;
+    private final int mCount;
+    /**
+     * The table is a private copy made by {@link #update(ColorGradient, int, int)}, edited in place from then on.
+     */
+    private final boolean mPrivate;
+
+    EagerColorResolver(ColorGradient gradient) {
+        mCount = gradient.getColorCount();
+        mColors = new int[mCount];
+        mPrivate = false;
+        gradient.fill(mColors);
+    }
+
+    EagerColorResolver(int[] colors, int count) {
+        this(colors, count, false);
+    }
+
+    private EagerColorResolver(int[] colors, int count, boolean isPrivate) {
+        mColors = colors;
+        mCount = count;
+        mPrivate = isPrivate;
+    }
+
+    /**
+     * @return the table itself, must not be modified
+     */
+    int[] getColors() {
+        return mColors;
+    }
+
+    @Override
+    public int colorAt(int position) {
+        return mColors[position];
+    }
+
+    @Override
+    public int getColorCount() {
+        return mCount;
+    }
+
+    @Override
+    public int getStrategy() {
+        return EAGER;
+    }
+
+    @Override
+    public long getTableBytes() {
+        return mColors.length * 4L;
+    }
+
+    /**
+     * Copy on write once, the table may be shared through {@link ColorTableCache}. The copy is private, later edits
+     * only fill from..to-1 of it in place.
+     */
+    @Override
+    public ColorResolver update(ColorGradient gradient, int from, int to) {
+        if (gradient.getColorCount() != mCount) {
+            throw new IllegalArgumentException("color count changed: " + mCount + " -> " + gradient.getColorCount());
+        }
+        if (mPrivate) {
+            gradient.fill(mColors, from, to);
+            return this;
+        }
+        int[] colors = new int[mCount];
+        System.arraycopy(mColors, 0, colors, 0, mCount);
+        gradient.fill(colors, from, to);
+        return new EagerColorResolver(colors, mCount, true);
+    }
+
+    @Override
+    public void copyTo(int[] dest, int count) {
+        System.arraycopy(mColors, 0, dest, 0, count);
+    }
+}
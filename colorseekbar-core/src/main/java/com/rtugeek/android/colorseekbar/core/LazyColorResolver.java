@@ -0,0 +1,41 @@
+package com.rtugeek.android.colorseekbar.core;
+
+final class LazyColorResolver extends ColorResolver {
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(LAZY_CHUNK_SIZE);
+
+    private final ColorGradient mGradient;
+    private final int[] mColors;
+    private final boolean[] mFilled;
+
+    LazyColorResolver(ColorGradient gradient) {
+        mGradient = gradient;
+        mColors = new int[gradient.getColorCount()];
+        mFilled = new boolean[(mColors.length + LAZY_CHUNK_SIZE - 1) >> CHUNK_SHIFT];
+    }
+
+    @Override
+    public int colorAt(int position) {
+        int chunk = position >> CHUNK_SHIFT;
+        if (!mFilled[chunk]) {
+            int from = chunk << CHUNK_SHIFT;
+            mGradient.fill(mColors, from, Math.min(from + LAZY_CHUNK_SIZE, mColors.length));
+            mFilled[chunk] = true;
+        }
+        return mColors[position];
+    }
+
+    @Override
+    public int getColorCount() {
+        return mColors.length;
+    }
+
+    @Override
+    public int getStrategy() {
+        return LAZY;
+    }
+
+    @Override
+    public long getTableBytes() {
+        return mColors.length * 4L + mFilled.length;
+    }
+}
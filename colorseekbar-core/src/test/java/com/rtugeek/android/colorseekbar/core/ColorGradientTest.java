@@ -0,0 +1,274 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ColorGradientTest {
+    private static final int[] SEEDS = new int[]{0xFF000000, 0xFF9900FF, 0xFF0000FF, 0xFF00FF00, 0xFF00FFFF, 0xFFFF0000, 0xFFFF00FF, 0xFFFF6600, 0xFFFFFF00, 0xFFFFFFFF, 0xFF000000};
+
+    @Test
+    public void colorAt_endsReturnSeeds() {
+        int[] seeds = new int[]{0x800000FF, 0xFF00FF00, 0x40FF0000};
+        ColorGradient gradient = new ColorGradient(seeds, 100);
+        assertEquals(0x800000FF, gradient.colorAt(0));
+        assertEquals(0x40FF0000, gradient.colorAt(100));
+    }
+
+    @Test
+    public void colorAt_seedPositionsReturnOpaqueSeeds() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 100);
+        for (int i = 1; i < SEEDS.length - 1; i++) {
+            assertEquals(SEEDS[i], gradient.colorAt(i * 10));
+        }
+    }
+
+    @Test
+    public void colorAt_mixesChannelsWithRoundHalfUp() {
+        ColorGradient gradient = new ColorGradient(new int[]{0xFF0000FF, 0xFF00FF00}, 2);
+        assertEquals(0xFF008080, gradient.colorAt(1));
+    }
+
+    @Test
+    public void fill_matchesColorAt() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 1000);
+        int[] colors = new int[gradient.getColorCount()];
+        gradient.fill(colors);
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(gradient.colorAt(i), colors[i]);
+        }
+    }
+
+    @Test
+    public void fill_matchesGoldenValues() {
+        //values of the float path, i.e. the original pickColor rounding
+        int[] positions = new int[]{1, 13, 26, 64, 100, 127, 128, 200, 254};
+        int[] expected = new int[]{0xFF06000A, 0xFF4E0082, 0xFF9600FF, 0xFF00827D, 0xFF00FFEB, 0xFFFA0505, 0xFFFF0005, 0xFFFFE700, 0xFF0A0A0A};
+        int[] colors = new int[256];
+        new ColorGradient(SEEDS, 255).fill(colors);
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals(expected[i], colors[positions[i]]);
+        }
+    }
+
+    @Test
+    public void fill_matchesColorAtNearFloatTies() {
+        //positions where exact rounding and the float path disagree
+        ColorGradient gradient = new ColorGradient(new int[]{0xFF000000, 0xFFFFFFFF}, 3000000);
+        int[] colors = new int[gradient.getColorCount()];
+        gradient.fill(colors);
+        assertEquals(0xFFACACAC, colors[2017647]);
+        assertEquals(0xFFB6B6B6, colors[2135294]);
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(gradient.colorAt(i), colors[i]);
+        }
+    }
+
+    @Test
+    public void fill_matchesColorAtForManySeedsAndRanges() {
+        Random random = new Random(42);
+        int[] seedCounts = new int[]{2, 3, 11, 37, 1000};
+        int[] maxPositions = new int[]{1, 2, 7, 99, 100, 255, 1023, 100000};
+        for (int seedCount : seedCounts) {
+            int[] seeds = new int[seedCount];
+            for (int i = 0; i < seedCount; i++) {
+                seeds[i] = random.nextInt();
+            }
+            for (int maxPosition : maxPositions) {
+                ColorGradient gradient = new ColorGradient(seeds, maxPosition);
+                int[] colors = new int[gradient.getColorCount()];
+                int from = maxPosition / 3;
+                int to = maxPosition - maxPosition / 4;
+                gradient.fill(colors, from, to);
+                for (int i = from; i < to; i++) {
+                    assertEquals(gradient + " at " + i, gradient.colorAt(i), colors[i]);
+                }
+                gradient.fill(colors);
+                for (int i = 0; i < colors.length; i++) {
+                    assertEquals(gradient + " at " + i, gradient.colorAt(i), colors[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void interpolation_mixesInItsColorSpace() {
+        int[] blueToGreen = new int[]{0xFF0000FF, 0xFF00FF00};
+        assertEquals(0xFF008080, new ColorGradient(blueToGreen, 2, ColorGradient.INTERPOLATION_SRGB).colorAt(1));
+        assertEquals(0xFF00BCBC, new ColorGradient(blueToGreen, 2, ColorGradient.INTERPOLATION_LINEAR).colorAt(1));
+        assertEquals(0xFF00AABF, new ColorGradient(blueToGreen, 2, ColorGradient.INTERPOLATION_OKLAB).colorAt(1));
+        //OKLab lightness 0.5
+        assertEquals(0xFF636363, new ColorGradient(new int[]{0xFF000000, 0xFFFFFFFF}, 2, ColorGradient.INTERPOLATION_OKLAB).colorAt(1));
+    }
+
+    @Test
+    public void interpolation_seedsSurviveTheRoundTrip() {
+        Random random = new Random(7);
+        for (int interpolation = ColorGradient.INTERPOLATION_LINEAR; interpolation <= ColorGradient.INTERPOLATION_OKLAB; interpolation++) {
+            for (int i = 0; i < 5000; i++) {
+                int color = i < 256 ? 0xFF000000 | i * 0x010101 : 0xFF000000 | random.nextInt();
+                ColorGradient gradient = new ColorGradient(new int[]{0xFF000000, color, 0xFFFFFFFF}, 2, interpolation);
+                assertEquals(color, gradient.colorAt(1));
+            }
+        }
+    }
+
+    @Test
+    public void interpolation_fillMatchesColorAt() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 1000, ColorGradient.INTERPOLATION_OKLAB);
+        int[] colors = new int[gradient.getColorCount()];
+        gradient.fill(colors);
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(gradient.colorAt(i), colors[i]);
+        }
+    }
+
+    @Test
+    public void interpolation_isPartOfEquality() {
+        assertNotEquals(new ColorGradient(SEEDS, 100), new ColorGradient(SEEDS, 100, ColorGradient.INTERPOLATION_OKLAB));
+        assertEquals(new ColorGradient(SEEDS, 100), new ColorGradient(SEEDS, 100, ColorGradient.INTERPOLATION_SRGB));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownInterpolationIsRejected() {
+        new ColorGradient(SEEDS, 100, 3);
+    }
+
+    @Test
+    public void withSeed_changesColorsOnlyInSeedRange() {
+        Random random = new Random(11);
+        for (int maxPosition : new int[]{0, 1, 3, 10, 99, 100, 255, 1000}) {
+            ColorGradient gradient = new ColorGradient(SEEDS, maxPosition);
+            for (int index = 0; index < SEEDS.length; index++) {
+                ColorGradient edited = gradient.withSeed(index, random.nextInt());
+                int[] range = edited.getSeedRange(index);
+                for (int i = 0; i < gradient.getColorCount(); i++) {
+                    if (i < range[0] || i >= range[1]) {
+                        assertEquals(gradient + " seed " + index + " at " + i, gradient.colorAt(i), edited.colorAt(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void getSegmentStart_coversEveryPosition() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 95);
+        assertEquals(0, gradient.getSegmentStart(0));
+        assertEquals(10, gradient.getSegmentStart(1));
+        assertEquals(95, gradient.getSegmentStart(10));
+        assertEquals(96, gradient.getSegmentStart(11));
+    }
+
+    @Test
+    public void singleSeedAndZeroMaxPosition() {
+        assertEquals(0xFF123456, new ColorGradient(new int[]{0xFF123456}, 10).colorAt(5));
+        assertEquals(0xFF000000, new ColorGradient(SEEDS, 0).colorAt(0));
+    }
+
+    @Test
+    public void seedsAreCopied() {
+        int[] seeds = SEEDS.clone();
+        ColorGradient gradient = new ColorGradient(seeds, 100);
+        seeds[0] = 0xFFFFFFFF;
+        gradient.getSeeds()[0] = 0xFFFFFFFF;
+        assertArrayEquals(SEEDS, gradient.getSeeds());
+    }
+
+    @Test
+    public void equalsComparesSeedsAndMaxPosition() {
+        assertEquals(new ColorGradient(SEEDS, 100), new ColorGradient(SEEDS.clone(), 100));
+        assertEquals(new ColorGradient(SEEDS, 100).hashCode(), new ColorGradient(SEEDS.clone(), 100).hashCode());
+        assertNotEquals(new ColorGradient(SEEDS, 100), new ColorGradient(SEEDS, 101));
+    }
+
+    @Test
+    public void map_returnsColorOfRoundedPosition() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 1000, ColorGradient.INTERPOLATION_OKLAB);
+        float[] values = new float[]{-5, -1, 0.25f, 0.2504f, 0.9996f, 1, 3, Float.NaN, Float.POSITIVE_INFINITY};
+        int[] out = new int[values.length];
+        gradient.map(values, -1, 1, out);
+
+        int[] positions = new int[]{0, 0, 625, 625, 1000, 1000, 1000, 0, 1000};
+        for (int i = 0; i < values.length; i++) {
+            assertEquals("value " + values[i], gradient.colorAt(positions[i]), out[i]);
+        }
+    }
+
+    @Test
+    public void map_parallelMatchesSequential() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 4095);
+        Random random = new Random(7);
+        double[] values = new double[ColorGradient.MAP_CHUNK_SIZE * 5 + 3];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * 100;
+        }
+        int[] sequential = new int[values.length];
+        int[] parallel = new int[values.length];
+        gradient.map(values, -250, 250, sequential);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            gradient.map(values, -250, 250, parallel, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertArrayEquals(sequential, parallel);
+        for (int i = 0; i < values.length; i++) {
+            int position = (int) Math.max(0, Math.min(4095, Math.floor((values[i] + 250) / 500 * 4095 + 0.5)));
+            assertEquals(gradient.colorAt(position), sequential[i]);
+        }
+    }
+
+    @Test
+    public void map_aboveTableSizeMatchesColorAt() {
+        ColorGradient gradient = new ColorGradient(SEEDS, ColorResolver.EAGER_MAX_COLORS * 2);
+        float[] values = new float[]{0, 0.3f, 0.5f, 1};
+        int[] out = new int[values.length];
+        gradient.map(values, 0, 1, out);
+
+        assertEquals(gradient.colorAt(ColorResolver.EAGER_MAX_COLORS), out[2]);
+        assertEquals(gradient.colorAt(gradient.getMaxPosition()), out[3]);
+    }
+
+    @Test
+    public void map_acceptsWholeFloatRange() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 100);
+        float[] values = new float[]{-Float.MAX_VALUE, 0, Float.MAX_VALUE / 2, Float.MAX_VALUE};
+        int[] out = new int[values.length];
+        gradient.map(values, -Float.MAX_VALUE, Float.MAX_VALUE, out);
+
+        int[] positions = new int[]{0, 50, 75, 100};
+        for (int i = 0; i < values.length; i++) {
+            assertEquals("value " + values[i], gradient.colorAt(positions[i]), out[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void map_rejectsEmptyDomain() {
+        new ColorGradient(SEEDS, 100).map(new float[1], 1, 1, new int[1]);
+    }
+
+    @Test
+    public void fillStrip_matchesGradientOfStripWidth() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 100, ColorGradient.INTERPOLATION_LINEAR);
+        int[] strip = new int[333];
+        gradient.fillStrip(strip, strip.length);
+
+        ColorGradient wide = new ColorGradient(SEEDS, strip.length - 1, ColorGradient.INTERPOLATION_LINEAR);
+        for (int x = 0; x < strip.length; x++) {
+            assertEquals(wide.colorAt(x), strip[x]);
+        }
+        assertEquals(SEEDS[SEEDS.length - 1], strip[strip.length - 1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptySeedsAreRejected() {
+        new ColorGradient(new int[0], 100);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColorNearestIndexTest {
+    @Test
+    public void find_exactColorHasZeroDistance() {
+        int[] colors = new int[]{0xFF000000, 0xFF808080, 0xFFFFFFFF};
+        ColorNearestIndex index = new ColorNearestIndex();
+        index.build(colors, colors.length);
+        assertEquals(1, index.find(0xFF808080));
+        assertEquals(0f, index.getMatchDistance(), 0f);
+    }
+
+    @Test
+    public void find_matchesBruteForce() {
+        Random random = new Random(42);
+        ColorGradient gradient = new ColorGradient(new int[]{0xFF000000, 0xFF9900FF, 0xFF0000FF, 0xFF00FF00, 0xFFFF0000, 0xFFFFFFFF}, 5000);
+        int[] colors = new int[gradient.getColorCount()];
+        gradient.fill(colors);
+        ColorNearestIndex index = new ColorNearestIndex();
+        index.build(colors, colors.length);
+        for (int i = 0; i < 2000; i++) {
+            int color = 0xFF000000 | random.nextInt(0x1000000);
+            assertEquals(bruteForce(colors, color), index.find(color));
+        }
+    }
+
+    @Test
+    public void find_emptyIndex() {
+        ColorNearestIndex index = new ColorNearestIndex();
+        assertEquals(-1, index.find(0xFF000000));
+    }
+
+    private static int bruteForce(int[] colors, int color) {
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < colors.length; i++) {
+            int dr = ((colors[i] >> 16) & 0xFF) - ((color >> 16) & 0xFF);
+            int dg = ((colors[i] >> 8) & 0xFF) - ((color >> 8) & 0xFF);
+            int db = (colors[i] & 0xFF) - (color & 0xFF);
+            int distance = 2 * dr * dr + 4 * dg * dg + 3 * db * db;
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
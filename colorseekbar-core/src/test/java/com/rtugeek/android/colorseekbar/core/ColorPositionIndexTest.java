@@ -0,0 +1,47 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColorPositionIndexTest {
+    @Test
+    public void get_returnsLowestPosition() {
+        int[] colors = new int[]{0xFF000000, 0xFFFF0000, 0xFF000000, 0xFF00FF00, 0xFFFF0000};
+        ColorPositionIndex index = new ColorPositionIndex();
+        index.build(colors, colors.length);
+        assertEquals(0, index.get(0xFF000000));
+        assertEquals(1, index.get(0xFFFF0000));
+        assertEquals(3, index.get(0xFF00FF00));
+        assertEquals(-1, index.get(0xFF0000FF));
+    }
+
+    @Test
+    public void get_matchesLinearScan() {
+        ColorGradient gradient = new ColorGradient(new int[]{0xFF000000, 0xFF0000FF, 0xFF00FF00, 0xFFFFFFFF}, 100000);
+        int[] colors = new int[gradient.getColorCount()];
+        gradient.fill(colors);
+        ColorPositionIndex index = new ColorPositionIndex();
+        index.build(colors, colors.length);
+        for (int i = 0; i < colors.length; i += 7) {
+            assertEquals(firstIndexOf(colors, colors[i]), index.get(colors[i]));
+        }
+    }
+
+    @Test
+    public void build_onlyIndexesCount() {
+        int[] colors = new int[]{0xFF000000, 0xFFFF0000, 0xFF00FF00};
+        ColorPositionIndex index = new ColorPositionIndex();
+        index.build(colors, 2);
+        assertEquals(-1, index.get(0xFF00FF00));
+    }
+
+    private static int firstIndexOf(int[] colors, int color) {
+        for (int i = 0; i < colors.length; i++) {
+            if (colors[i] == color) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
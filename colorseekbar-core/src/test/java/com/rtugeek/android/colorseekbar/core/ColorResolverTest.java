@@ -0,0 +1,122 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ColorResolverTest {
+    private static final int[] SEEDS = new int[]{0xFF000000, 0xFF9900FF, 0xFF0000FF, 0xFF00FF00, 0xFF00FFFF, 0xFFFF0000, 0xFFFF00FF, 0xFFFF6600, 0xFFFFFF00, 0xFFFFFFFF, 0xFF000000};
+
+    @Test
+    public void strategies_returnIdenticalColors() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 5000);
+        ColorResolver eager = ColorResolver.create(gradient, ColorResolver.EAGER);
+        ColorResolver lazy = ColorResolver.create(gradient, ColorResolver.LAZY);
+        ColorResolver analytic = ColorResolver.create(gradient, ColorResolver.ANALYTIC);
+        //walk the lazy table backwards so chunks are filled out of order
+        for (int i = gradient.getColorCount() - 1; i >= 0; i--) {
+            int expected = gradient.colorAt(i);
+            assertEquals(expected, eager.colorAt(i));
+            assertEquals(expected, lazy.colorAt(i));
+            assertEquals(expected, analytic.colorAt(i));
+        }
+    }
+
+    @Test
+    public void copyTo_matchesColorAt() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 3000);
+        ColorResolver lazy = ColorResolver.create(gradient, ColorResolver.LAZY);
+        lazy.colorAt(2500);
+        int[] colors = new int[gradient.getColorCount()];
+        lazy.copyTo(colors, colors.length);
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(gradient.colorAt(i), colors[i]);
+        }
+    }
+
+    @Test
+    public void auto_choosesByColorCount() {
+        assertEquals(ColorResolver.EAGER, ColorResolver.create(new ColorGradient(SEEDS, 100), ColorResolver.AUTO).getStrategy());
+        assertEquals(ColorResolver.EAGER, ColorResolver.chooseStrategy(ColorResolver.EAGER_MAX_COLORS));
+        assertEquals(ColorResolver.ANALYTIC, ColorResolver.chooseStrategy(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void analytic_holdsNoTable() {
+        ColorResolver analytic = ColorResolver.create(new ColorGradient(SEEDS, 1000000), ColorResolver.ANALYTIC);
+        assertEquals(0, analytic.getTableBytes());
+    }
+
+    @Test
+    public void indexes_buildFromResolver() {
+        ColorGradient gradient = new ColorGradient(new int[]{0xFF000000, 0xFFFFFFFF}, 100000);
+        ColorResolver analytic = ColorResolver.create(gradient, ColorResolver.ANALYTIC);
+        ColorPositionIndex index = new ColorPositionIndex();
+        index.build(analytic);
+        int position = index.get(gradient.colorAt(50000));
+        assertEquals(gradient.colorAt(50000), gradient.colorAt(position));
+    }
+
+    @Test
+    public void update_matchesFullRebuild() {
+        Random random = new Random(5);
+        for (int maxPosition : new int[]{1, 10, 100, 1023, 5000}) {
+            ColorGradient gradient = new ColorGradient(SEEDS, maxPosition);
+            for (int strategy = ColorResolver.EAGER; strategy <= ColorResolver.ANALYTIC; strategy++) {
+                ColorResolver resolver = ColorResolver.create(gradient, strategy);
+                for (int index = 0; index < SEEDS.length; index++) {
+                    ColorGradient edited = gradient.withSeed(index, random.nextInt());
+                    int[] range = edited.getSeedRange(index);
+                    ColorResolver updated = resolver.update(edited, range[0], range[1]);
+                    assertEquals(strategy, updated.getStrategy());
+                    for (int i = 0; i < edited.getColorCount(); i++) {
+                        assertEquals(edited + " seed " + index + " at " + i, edited.colorAt(i), updated.colorAt(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void update_leavesSharedTableAlone() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 100);
+        ColorResolver eager = ColorResolver.create(gradient, ColorResolver.EAGER);
+        eager.update(gradient.withSeed(5, 0xFF123456), 0, 101);
+        for (int i = 0; i < gradient.getColorCount(); i++) {
+            assertEquals(gradient.colorAt(i), eager.colorAt(i));
+        }
+    }
+
+    @Test
+    public void update_copiesSharedTableOnceThenEditsInPlace() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 1000);
+        ColorResolver shared = ColorResolver.create(gradient, ColorResolver.EAGER);
+        ColorGradient first = gradient.withSeed(3, 0xFF123456);
+        int[] range = first.getSeedRange(3);
+        ColorResolver copy = shared.update(first, range[0], range[1]);
+        assertNotSame(shared, copy);
+
+        ColorGradient second = first.withSeed(7, 0xFF654321);
+        range = second.getSeedRange(7);
+        assertSame(copy, copy.update(second, range[0], range[1]));
+        for (int i = 0; i < second.getColorCount(); i++) {
+            assertEquals(second.colorAt(i), copy.colorAt(i));
+            assertEquals(gradient.colorAt(i), shared.colorAt(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void update_rejectsOtherColorCount() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 100);
+        ColorResolver.create(gradient, ColorResolver.EAGER).update(new ColorGradient(SEEDS, 101), 0, 102);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_rejectsUnknownStrategy() {
+        ColorResolver.create(new ColorGradient(SEEDS, 100), 7);
+    }
+}
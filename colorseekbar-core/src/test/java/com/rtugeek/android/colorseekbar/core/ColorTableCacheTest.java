@@ -0,0 +1,73 @@
+package com.rtugeek.android.colorseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ColorTableCacheTest {
+    private static final int[] SEEDS = new int[]{0xFF0000FF, 0xFF00FF00, 0xFFFF0000};
+
+    @Test
+    public void get_sharesTableOfEqualGradients() {
+        ColorTableCache cache = new ColorTableCache(ColorTableCache.DEFAULT_MAX_BYTES);
+        ColorResolver table = cache.get(new ColorGradient(SEEDS, 100));
+        assertSame(table, cache.get(new ColorGradient(SEEDS.clone(), 100)));
+        assertNotSame(table, cache.get(new ColorGradient(SEEDS, 101)));
+        assertEquals(ColorResolver.EAGER, table.getStrategy());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void get_returnsColorsOfGradient() {
+        ColorGradient gradient = new ColorGradient(SEEDS, 1000);
+        ColorResolver table = new ColorTableCache(ColorTableCache.DEFAULT_MAX_BYTES).get(gradient);
+        for (int i = 0; i < gradient.getColorCount(); i++) {
+            assertEquals(gradient.colorAt(i), table.colorAt(i));
+        }
+    }
+
+    @Test
+    public void get_evictsLeastRecentlyUsed() {
+        //room for two tables of 100 colors
+        ColorTableCache cache = new ColorTableCache(800);
+        ColorGradient first = new ColorGradient(SEEDS, 99);
+        ColorGradient second = new ColorGradient(new int[]{0xFF000000, 0xFFFFFFFF}, 99);
+        ColorGradient third = new ColorGradient(new int[]{0xFFFFFFFF, 0xFF000000}, 99);
+        ColorResolver firstTable = cache.get(first);
+        cache.get(second);
+        cache.get(first);
+        cache.get(third);
+
+        assertEquals(2, cache.size());
+        assertEquals(800, cache.getBytes());
+        assertSame(firstTable, cache.get(first));
+        int misses = cache.getMissCount();
+        cache.get(second);
+        assertEquals(misses + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_doesNotCacheTablesLargerThanTheCache() {
+        ColorTableCache cache = new ColorTableCache(100);
+        ColorResolver table = cache.get(new ColorGradient(SEEDS, 100));
+        assertEquals(101, table.getColorCount());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    public void setMaxBytes_trims() {
+        ColorTableCache cache = new ColorTableCache(ColorTableCache.DEFAULT_MAX_BYTES);
+        cache.prewarm(new ColorGradient(SEEDS, 99));
+        cache.prewarm(new ColorGradient(SEEDS, 199));
+        cache.setMaxBytes(800);
+        assertEquals(1, cache.size());
+        assertEquals(800, cache.getBytes());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+}
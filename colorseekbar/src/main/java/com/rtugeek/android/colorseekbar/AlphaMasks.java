@@ -0,0 +1,56 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+
+/**
+ * ALPHA_8 masks of the alpha bar and the alpha thumb, drawn in the color of the paint they are drawn with, so a new
+ * color needs no new shader. They are rendered through a Canvas, Bitmap.setPixel() only supports ALPHA_8 since API 26.
+ */
+final class AlphaMasks {
+    private AlphaMasks() {
+    }
+
+    /**
+     * @param reuse returned when it has the same size
+     * @return a width x 1 mask from fromAlpha at x=0 to toAlpha at x=width
+     */
+    static Bitmap createBarMask(Bitmap reuse, int width, int fromAlpha, int toAlpha) {
+        Bitmap mask = prepare(reuse, width, 1);
+        Paint paint = new Paint();
+        paint.setShader(new LinearGradient(0, 0, width, 0, Color.argb(fromAlpha, 0, 0, 0), Color.argb(toAlpha, 0, 0, 0),
+                Shader.TileMode.CLAMP));
+        new Canvas(mask).drawRect(0, 0, width, 1, paint);
+        return mask;
+    }
+
+    /**
+     * @param reuse returned when it has the same size
+     * @return a circle of thumbHeight with one pixel of margin for anti-aliasing, mirrored rings from fromAlpha at
+     * the center to toAlpha at the radius
+     */
+    static Bitmap createThumbMask(Bitmap reuse, int thumbHeight, int fromAlpha, int toAlpha) {
+        int size = thumbHeight + 2;
+        Bitmap mask = prepare(reuse, size, size);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setShader(new RadialGradient(0, 0, Math.max(1, thumbHeight / 2), Color.argb(fromAlpha, 0, 0, 0),
+                Color.argb(toAlpha, 0, 0, 0), Shader.TileMode.MIRROR));
+        Canvas canvas = new Canvas(mask);
+        canvas.translate(size / 2f, size / 2f);
+        canvas.drawCircle(0, 0, thumbHeight / 2, paint);
+        return mask;
+    }
+
+    private static Bitmap prepare(Bitmap reuse, int width, int height) {
+        if (reuse != null && reuse.getWidth() == width && reuse.getHeight() == height) {
+            reuse.eraseColor(Color.TRANSPARENT);
+            return reuse;
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+    }
+}
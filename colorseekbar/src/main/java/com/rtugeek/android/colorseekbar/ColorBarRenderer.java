@@ -0,0 +1,358 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Draws horizontal color bars (gradient, stroke, thumb and optional alpha bar) of {@link ColorSeekBarState}s onto any
+ * Canvas, so one parent view or {@link ColorSeekBarDrawable}s can show many bars without a ColorSeekBar each.
+ * Bars look like a ColorSeekBar with the same sizes, both share the defaults, paints and alpha masks of this class.
+ * The last {@link #MAX_CACHED_SHADERS} shaders are cached per config and bar width, share one renderer between
+ * all bars of a screen. UI thread only.
+ * <p>
+ * Layout inside the bounds: the color bar is centered on the first thumb row, the alpha bar lies
+ * thumbHeight + barHeight + barMargin below it, as in ColorSeekBar. Bars are inset by the thumb radius so thumbs at
+ * the ends stay inside.
+ */
+public class ColorBarRenderer {
+    public static final int HIT_NONE = 0;
+    public static final int HIT_COLOR_BAR = 1;
+    public static final int HIT_ALPHA_BAR = 2;
+
+    public static final int MAX_CACHED_SHADERS = 32;
+
+    static final int DEFAULT_BAR_HEIGHT_DP = 2;
+    static final int DEFAULT_THUMB_HEIGHT_DP = 16;
+    static final int DEFAULT_BAR_MARGIN_DP = 5;
+    static final int DEFAULT_STROKE_WIDTH_DP = 1;
+    /**
+     * Half the stroke width of the thumbs, the preview circle stroke width of ColorSeekBar.
+     */
+    static final int DEFAULT_THUMB_STROKE_WIDTH_DP = 2;
+    /**
+     * The opaque dot under the alpha thumb is this much larger than half the bar height, px.
+     */
+    static final int ALPHA_THUMB_DOT_EXTRA = 5;
+
+    private static final int ALPHA_RAMP_WIDTH = 256;
+
+    private int mBarHeight;
+    private int mThumbHeight;
+    private int mBarMargin;
+    private final Paint mBarPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+    private final Paint mThumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mThumbStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+    private final Paint mAlphaPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private final Paint mAlphaThumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private Bitmap mAlphaThumbMask;
+    private final LinkedHashMap<ShaderKey, Shader> mShaders = new LinkedHashMap<ShaderKey, Shader>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ShaderKey, Shader> eldest) {
+            return size() > MAX_CACHED_SHADERS;
+        }
+    };
+    //lookups reuse one key, only a cached shader gets its own
+    private final ShaderKey mLookupKey = new ShaderKey();
+    private final RectF mRect = new RectF();
+    private final Rect mBarBounds = new Rect();
+
+    /**
+     * With the default sizes of ColorSeekBar.
+     */
+    public ColorBarRenderer(Context context) {
+        float density = context.getResources().getDisplayMetrics().density;
+        mBarHeight = dp2px(density, DEFAULT_BAR_HEIGHT_DP);
+        mThumbHeight = dp2px(density, DEFAULT_THUMB_HEIGHT_DP);
+        mBarMargin = dp2px(density, DEFAULT_BAR_MARGIN_DP);
+        setUpStrokePaint(mStrokePaint, Color.DKGRAY, dp2px(density, DEFAULT_STROKE_WIDTH_DP));
+        setUpThumbStrokePaint(mThumbStrokePaint, dp2px(density, DEFAULT_THUMB_STROKE_WIDTH_DP));
+
+        //an alpha only texture is drawn in the paint's color, so one ramp serves every color
+        Bitmap ramp = AlphaMasks.createBarMask(null, ALPHA_RAMP_WIDTH, 255, 0);
+        mAlphaPaint.setShader(new BitmapShader(ramp, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+    }
+
+    static int dp2px(float density, float dp) {
+        return (int) (dp * density + 0.5f);
+    }
+
+    static void setUpStrokePaint(Paint paint, int color, float width) {
+        paint.setColor(color);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeJoin(Paint.Join.ROUND);
+        paint.setStrokeWidth(width);
+    }
+
+    /**
+     * @param halfWidth the stroke is twice as wide, half of it is covered by the thumb
+     */
+    static void setUpThumbStrokePaint(Paint paint, float halfWidth) {
+        paint.setColor(Color.WHITE);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeJoin(Paint.Join.ROUND);
+        paint.setStrokeWidth(halfWidth * 2);
+    }
+
+    public void setBarHeight(int px) {
+        mBarHeight = px;
+    }
+
+    public int getBarHeight() {
+        return mBarHeight;
+    }
+
+    public void setThumbHeight(int px) {
+        mThumbHeight = px;
+    }
+
+    public int getThumbHeight() {
+        return mThumbHeight;
+    }
+
+    public void setBarMargin(int px) {
+        mBarMargin = px;
+    }
+
+    public int getBarMargin() {
+        return mBarMargin;
+    }
+
+    public void setStrokeColor(int color) {
+        mStrokePaint.setColor(color);
+    }
+
+    public void setStrokeWidth(float px) {
+        mStrokePaint.setStrokeWidth(px);
+    }
+
+    /**
+     * @param px half the width of the white ring around the thumbs, like previewStrokeWidth of ColorSeekBar
+     */
+    public void setThumbStrokeWidth(float px) {
+        mThumbStrokePaint.setStrokeWidth(px * 2);
+    }
+
+    public void setThumbStrokeColor(int color) {
+        mThumbStrokePaint.setColor(color);
+    }
+
+    /**
+     * @return height a bar of config needs
+     */
+    public int getHeight(ColorSeekBarConfig config) {
+        return config.isShowAlphaBar() ? mThumbHeight * 2 + mBarHeight + mBarMargin : mThumbHeight;
+    }
+
+    /**
+     * Drop the cached shaders, e.g. when a screen with many palettes goes away.
+     */
+    public void clearCache() {
+        mShaders.clear();
+    }
+
+    /**
+     * Same as {@link ColorSeekBar#getColor()} of a bar showing state.
+     *
+     * @return the color of state, with the alpha of the alpha bar if its config shows it
+     */
+    public static int getColor(ColorSeekBarState state) {
+        ColorSeekBarConfig config = state.getConfig();
+        int color = colorAt(state);
+        if (!config.isShowAlphaBar()) {
+            return color;
+        }
+        return Color.argb(clampAlpha(255 - state.getAlphaBarPosition()), Color.red(color), Color.green(color), Color.blue(color));
+    }
+
+    private static int colorAt(ColorSeekBarState state) {
+        ColorGradient gradient = state.getConfig().getGradient();
+        return gradient.colorAt(Math.max(0, Math.min(state.getColorBarPosition(), gradient.getMaxPosition())));
+    }
+
+    public void draw(Canvas canvas, Rect bounds, ColorSeekBarState state) {
+        ColorSeekBarConfig config = state.getConfig();
+        ColorGradient gradient = config.getGradient();
+        int thumbRadius = mThumbHeight / 2;
+        getBarBounds(bounds, mBarBounds);
+        int width = mBarBounds.width();
+        if (width < 1) {
+            return;
+        }
+        int left = mBarBounds.left;
+        float colorCenterY = bounds.top + thumbRadius;
+
+        //color bar, its shader starts at 0 so the canvas is moved to the bar
+        int saveCount = canvas.save();
+        canvas.translate(left, colorCenterY - mBarHeight / 2f);
+        mRect.set(0, 0, width, mBarHeight);
+        float corner = mBarHeight / 2f;
+        canvas.drawRoundRect(mRect, corner, corner, mStrokePaint);
+        mBarPaint.setShader(getShader(config, width));
+        canvas.drawRoundRect(mRect, corner, corner, mBarPaint);
+        canvas.restoreToCount(saveCount);
+
+        int position = Math.max(0, Math.min(state.getColorBarPosition(), gradient.getMaxPosition()));
+        int color = gradient.colorAt(position);
+        float thumbX = left + (gradient.getMaxPosition() == 0 ? 0 : (float) position / gradient.getMaxPosition() * width);
+        mThumbPaint.setColor(color);
+        canvas.drawCircle(thumbX, colorCenterY, thumbRadius, mThumbStrokePaint);
+        canvas.drawCircle(thumbX, colorCenterY, thumbRadius, mThumbPaint);
+
+        if (!config.isShowAlphaBar()) {
+            return;
+        }
+        float alphaCenterY = getAlphaCenterY(bounds);
+        saveCount = canvas.save();
+        canvas.translate(left, alphaCenterY - mBarHeight / 2f);
+        canvas.scale((float) width / ALPHA_RAMP_WIDTH, 1);
+        mAlphaPaint.setColor(color | 0xFF000000);
+        canvas.drawRect(0, 0, ALPHA_RAMP_WIDTH, mBarHeight, mAlphaPaint);
+        canvas.restoreToCount(saveCount);
+
+        //an opaque dot under the alpha rings, like ColorSeekBar
+        float alphaThumbX = left + clampAlpha(state.getAlphaBarPosition()) / 255f * width;
+        canvas.drawCircle(alphaThumbX, alphaCenterY, mBarHeight / 2 + ALPHA_THUMB_DOT_EXTRA, mThumbPaint);
+        if (mAlphaThumbMask == null || mAlphaThumbMask.getWidth() != mThumbHeight + 2) {
+            mAlphaThumbMask = AlphaMasks.createThumbMask(mAlphaThumbMask, mThumbHeight, 255, 0);
+        }
+        mAlphaThumbPaint.setColor(color | 0xFF000000);
+        float maskCenter = mAlphaThumbMask.getWidth() / 2f;
+        canvas.drawBitmap(mAlphaThumbMask, alphaThumbX - maskCenter, alphaCenterY - maskCenter, mAlphaThumbPaint);
+    }
+
+    /**
+     * Fill every row of bitmap with gradient stretched over its width, the colors a bar of that width shows,
+     * see {@link ColorGradient#fillStrip(int[], int)}.
+     *
+     * @param bitmap mutable
+     */
+    public static void drawStrip(ColorGradient gradient, Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int[] strip = new int[width];
+        gradient.fillStrip(strip, width);
+        for (int y = 0; y < bitmap.getHeight(); y++) {
+            bitmap.setPixels(strip, 0, width, 0, y, width, 1);
+        }
+    }
+
+    /**
+     * Which bar of a bar drawn at bounds is under x, y, for hosts that drive many bars from one view.
+     *
+     * @return {@link #HIT_NONE}, {@link #HIT_COLOR_BAR} or {@link #HIT_ALPHA_BAR}
+     */
+    public int hitTest(Rect bounds, ColorSeekBarConfig config, float x, float y) {
+        int thumbRadius = mThumbHeight / 2;
+        getBarBounds(bounds, mBarBounds);
+        if (x <= mBarBounds.left - thumbRadius || x >= mBarBounds.right + thumbRadius) {
+            return HIT_NONE;
+        }
+        float colorCenterY = bounds.top + thumbRadius;
+        if (Math.abs(y - colorCenterY) < thumbRadius) {
+            return HIT_COLOR_BAR;
+        }
+        if (config.isShowAlphaBar() && Math.abs(y - getAlphaCenterY(bounds)) < thumbRadius) {
+            return HIT_ALPHA_BAR;
+        }
+        return HIT_NONE;
+    }
+
+    /**
+     * Move the thumb of the bar found by {@link #hitTest(Rect, ColorSeekBarConfig, float, float)} to x.
+     *
+     * @return the new state, state itself if the position didn't change
+     */
+    public ColorSeekBarState dragTo(Rect bounds, ColorSeekBarState state, int hit, float x) {
+        getBarBounds(bounds, mBarBounds);
+        int width = Math.max(1, mBarBounds.width());
+        float fraction = Math.max(0, Math.min(1, (x - mBarBounds.left) / width));
+        if (hit == HIT_COLOR_BAR) {
+            int position = (int) (fraction * state.getConfig().getGradient().getMaxPosition());
+            return position == state.getColorBarPosition() ? state : state.withColorBarPosition(position);
+        }
+        if (hit == HIT_ALPHA_BAR) {
+            int position = (int) (fraction * 255);
+            return position == state.getAlphaBarPosition() ? state : state.withAlphaBarPosition(position);
+        }
+        return state;
+    }
+
+    private float getAlphaCenterY(Rect bounds) {
+        return bounds.top + mThumbHeight / 2 + mThumbHeight + mBarHeight + mBarMargin;
+    }
+
+    /**
+     * @param out horizontal extent of the bars inside bounds
+     */
+    private void getBarBounds(Rect bounds, Rect out) {
+        int thumbRadius = mThumbHeight / 2;
+        out.set(bounds.left + thumbRadius, bounds.top, bounds.right - thumbRadius, bounds.bottom);
+    }
+
+    private Shader getShader(ColorSeekBarConfig config, int width) {
+        mLookupKey.config = config;
+        mLookupKey.width = width;
+        Shader shader = mShaders.get(mLookupKey);
+        if (shader == null) {
+            shader = createShader(config.getGradient(), width);
+            ShaderKey key = new ShaderKey();
+            key.config = config;
+            key.width = width;
+            mShaders.put(key, shader);
+        }
+        return shader;
+    }
+
+    /**
+     * Same choice as {@link ColorSeekBar#isBarTextureRendering()} in auto mode.
+     */
+    private static Shader createShader(ColorGradient gradient, int width) {
+        if (gradient.getInterpolation() == ColorGradient.INTERPOLATION_SRGB
+                && gradient.getSeedCount() <= ColorSeekBar.TEXTURE_SEED_THRESHOLD) {
+            int[] seeds = gradient.getSeeds();
+            if (seeds.length == 1) {
+                seeds = new int[]{seeds[0], seeds[0]};
+            }
+            return new LinearGradient(0, 0, width, 0, seeds, null, Shader.TileMode.CLAMP);
+        }
+        Bitmap texture = Bitmap.createBitmap(width, 1, Bitmap.Config.ARGB_8888);
+        drawStrip(gradient, texture);
+        return new BitmapShader(texture, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+    }
+
+    private static int clampAlpha(int alpha) {
+        return Math.max(0, Math.min(255, alpha));
+    }
+
+    private static final class ShaderKey {
+        ColorSeekBarConfig config;
+        int width;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ShaderKey)) {
+                return false;
+            }
+            ShaderKey other = (ShaderKey) o;
+            return width == other.width && config.equals(other.config);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * config.hashCode() + width;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.rtugeek.android.colorseekbar;
+
+/**
+ * Every touch sample of one MotionEvent, including the historical ones batched into it, oldest first.
+ * The arrays are reused between calls and may be longer than {@link #size()}, only the first size() entries are valid.
+ */
+public class ColorSamples {
+    private int mSize;
+    private int[] mColorBarPositions = new int[8];
+    private int[] mAlphaBarPositions = new int[8];
+    private int[] mColors = new int[8];
+    private long[] mEventTimes = new long[8];
+
+    void reset(int capacity) {
+        mSize = 0;
+        if (mColors.length < capacity) {
+            int length = Math.max(capacity, mColors.length * 2);
+            mColorBarPositions = new int[length];
+            mAlphaBarPositions = new int[length];
+            mColors = new int[length];
+            mEventTimes = new long[length];
+        }
+    }
+
+    void add(int colorBarPosition, int alphaBarPosition, int color, long eventTime) {
+        mColorBarPositions[mSize] = colorBarPosition;
+        mAlphaBarPositions[mSize] = alphaBarPosition;
+        mColors[mSize] = color;
+        mEventTimes[mSize] = eventTime;
+        mSize++;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return color bar positions, between 0-maxValue
+     */
+    public int[] getColorBarPositions() {
+        return mColorBarPositions;
+    }
+
+    /**
+     * @return alpha bar positions, between 0-255
+     */
+    public int[] getAlphaBarPositions() {
+        return mAlphaBarPositions;
+    }
+
+    /**
+     * @return colors, with alpha value if showAlphaBar is true
+     */
+    public int[] getColors() {
+        return mColors;
+    }
+
+    /**
+     * @return sample times in the {@link android.os.SystemClock#uptimeMillis()} time base
+     */
+    public long[] getEventTimes() {
+        return mEventTimes;
+    }
+}
@@ -1,35 +1,99 @@
 package com.rtugeek.android.colorseekbar;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.LinearGradient;
+import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.RadialGradient;
+import android.graphics.Picture;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Shader;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.ArrayRes;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
 
-import java.util.ArrayList;
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+import com.rtugeek.android.colorseekbar.core.ColorNearestIndex;
+import com.rtugeek.android.colorseekbar.core.ColorPositionIndex;
+import com.rtugeek.android.colorseekbar.core.ColorResolver;
+import com.rtugeek.android.colorseekbar.core.ColorTableCache;
+
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 
 public class ColorSeekBar extends View {
+    /**
+     * Call {@link OnColorChangeListener#onColorChangeListener(int, int, int)} for every touch event that changes the color.
+     */
+    public static final int DISPATCH_PER_EVENT = 0;
+    /**
+     * Call {@link OnColorChangeListener#onColorChangeListener(int, int, int)} at most once per display frame with the latest color.
+     */
+    public static final int DISPATCH_PER_FRAME = 1;
+    /**
+     * Call {@link OnColorChangeListener#onColorChangeListener(int, int, int)} at most once per {@link #setColorChangeDispatchInterval(long)} with the latest color.
+     */
+    public static final int DISPATCH_MIN_INTERVAL = 2;
+    /**
+     * Draw the bar with a {@link LinearGradient} of the seeds, or from a texture above {@link #TEXTURE_SEED_THRESHOLD} seeds.
+     */
+    public static final int BAR_RENDER_AUTO = 0;
+    /**
+     * Always draw the bar with a {@link LinearGradient} of the seeds, only possible with sRGB interpolation.
+     */
+    public static final int BAR_RENDER_GRADIENT = 1;
+    /**
+     * Always draw the bar from a one pixel high texture of the picked colors, one texel per pixel of the bar.
+     */
+    public static final int BAR_RENDER_TEXTURE = 2;
+    /**
+     * {@link #BAR_RENDER_AUTO} switches to a texture above this many seeds.
+     */
+    public static final int TEXTURE_SEED_THRESHOLD = 16;
+
+    //delivers color tables built in the background, attached or not
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
     private int[] mColorSeeds = new int[]{0xFF000000, 0xFF9900FF, 0xFF0000FF, 0xFF00FF00, 0xFF00FFFF, 0xFFFF0000, 0xFFFF00FF, 0xFFFF6600, 0xFFFFFF00, 0xFFFFFFFF, 0xFF000000};
     private int mAlpha;
     private OnColorChangeListener mOnColorChangeLister;
+    private volatile ColorSubscription[] mSubscriptions = new ColorSubscription[0];
+    private OnColorSamplesListener mOnColorSamplesListener;
+    private final ColorSamples mColorSamples = new ColorSamples();
+    private int mDispatchMode = DISPATCH_PER_EVENT;
+    private long mDispatchInterval = 16;
+    private long mLastDispatchTime;
+    private boolean mColorChangePending;
+    private boolean mColorChangeScheduled;
+    private final Runnable mDispatchPendingColorChange = new Runnable() {
+        @Override
+        public void run() {
+            mColorChangeScheduled = false;
+            if (mColorChangePending) {
+                dispatchColorChange();
+            }
+        }
+    };
     private Context mContext;
     private boolean mIsShowAlphaBar = false;
     private boolean mIsVertical;
     private boolean mMovingColorBar;
     private boolean mMovingAlphaBar;
-    private Bitmap mTransparentBitmap;
     private Rect mColorRect;
     private int mThumbHeight = 20;
     private float mThumbRadius;
@@ -42,18 +106,49 @@ public class ColorSeekBar extends View {
     private int mBarWidth;
     private int mMaxPosition;
     private Rect mAlphaRect = new Rect();
+    private Rect mDrawnThumbBounds = new Rect();
+    private Rect mDirtyRect = new Rect();
     private int mColorBarPosition;
     private int mAlphaBarPosition;
     private int mBarMargin = 5;
     private int mAlphaMinPosition = 0;
     private int mAlphaMaxPosition = 255;
-    private List<Integer> mColors = new ArrayList<>();
+    private ColorResolver mColors;
+    private int mColorCount;
+    private int mColorResolution = ColorResolver.AUTO;
+    private Executor mColorTableExecutor;
+    private int mColorTableGeneration;
+    private boolean mColorTablePending;
+    private boolean mColorTableBuildDropped;
+    private ColorGradient mColorsGradient;
+    private int mColorsStrategy;
+    private boolean mInitPending;
+    private ColorSeekBarConfig mBoundConfig;
+    private ColorGradient mBoundGradient;
+    private OnColorTableReadyListener mOnColorTableReadyListener;
+    private final List<Integer> mColorsView = new ColorsView();
+    private ColorGradient mGradient;
+    private int mInterpolation = ColorGradient.INTERPOLATION_SRGB;
+    private int mBarRenderMode = BAR_RENDER_AUTO;
+    private int[] mBarTextureColors;
+    private Bitmap mBarTexture;
+    private final ColorPositionIndex mColorIndex = new ColorPositionIndex();
+    private final ColorNearestIndex mNearestIndex = new ColorNearestIndex();
+    private final ColorMatch mColorMatch = new ColorMatch();
+    private boolean mColorIndexDirty = true;
+    private boolean mNearestIndexDirty = true;
+    private boolean mColorsToInvokeNearest;
     private int mColorsToInvoke = -1;
     private boolean mInit = false;
+    private boolean mMetricsEnabled;
+    private final ColorSeekBarMetrics mMetrics = new ColorSeekBarMetrics();
+    private long mPendingTouchTime;
     private boolean mFirstDraw = true;
     private OnInitDoneListener mOnInitDoneListener;
 
-    private int[] toAlpha = new int[2];
+    private boolean mAlphaShaderDirty = true;
+    private Bitmap mAlphaBarMask;
+    private Bitmap mAlphaThumbMask;
 
     private boolean showPreviewCircle;
     private float previewCircleStrokeWidth;
@@ -64,9 +159,17 @@ public class ColorSeekBar extends View {
     private Paint colorBarStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
     private RectF colorBarBackupRectF = new RectF();
 
+    private boolean mCacheBarLayer = true;
+    private Rect mBarLayerBounds = new Rect();
+    private Bitmap mBarLayerBitmap;
+    private Canvas mBarLayerCanvas;
+    private boolean mBarLayerBitmapValid;
+    private Picture mBarLayerPicture;
+    private boolean mBarLayerPictureValid;
+
     private Paint colorPaint = new Paint();
-    private Paint alphaThumbGradientPaint = new Paint();
-    private Paint alphaBarPaint = new Paint();
+    private Paint alphaThumbGradientPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private Paint alphaBarPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private Paint thumbGradientPaint = new Paint();
 
     public ColorSeekBar(Context context) {
@@ -94,15 +197,18 @@ public class ColorSeekBar extends View {
         mIsVertical = a.getBoolean(R.styleable.ColorSeekBar_isVertical, false);
         mIsShowAlphaBar = a.getBoolean(R.styleable.ColorSeekBar_showAlphaBar, false);
         int mBackgroundColor = a.getColor(R.styleable.ColorSeekBar_bgColor, Color.TRANSPARENT);
-        mBarHeight = (int) a.getDimension(R.styleable.ColorSeekBar_barHeight, (float) dp2px(2));
-        mThumbHeight = (int) a.getDimension(R.styleable.ColorSeekBar_thumbHeight, (float) dp2px(16));
-        mBarMargin = (int) a.getDimension(R.styleable.ColorSeekBar_barMargin, (float) dp2px(5));
+        mBarHeight = (int) a.getDimension(R.styleable.ColorSeekBar_barHeight, (float) dp2px(ColorBarRenderer.DEFAULT_BAR_HEIGHT_DP));
+        mThumbHeight = (int) a.getDimension(R.styleable.ColorSeekBar_thumbHeight, (float) dp2px(ColorBarRenderer.DEFAULT_THUMB_HEIGHT_DP));
+        mBarMargin = (int) a.getDimension(R.styleable.ColorSeekBar_barMargin, (float) dp2px(ColorBarRenderer.DEFAULT_BAR_MARGIN_DP));
 
         showPreviewCircle = a.getBoolean(R.styleable.ColorSeekBar_previewEnable, false) && !mIsVertical;
-        previewCircleStrokeWidth = a.getDimension(R.styleable.ColorSeekBar_previewStrokeWidth, dp2px(2));
+        previewCircleStrokeWidth = a.getDimension(R.styleable.ColorSeekBar_previewStrokeWidth, dp2px(ColorBarRenderer.DEFAULT_THUMB_STROKE_WIDTH_DP));
         previewCircleRadius = a.getDimension(R.styleable.ColorSeekBar_previewRadius, dp2px(24));
         previewCircleMargin = (int) a.getDimension(R.styleable.ColorSeekBar_previewMargin, dp2px(6));
         int colorBarStrokeColor = a.getColor(R.styleable.ColorSeekBar_colorBarStrokeColor, Color.DKGRAY);
+        mCacheBarLayer = a.getBoolean(R.styleable.ColorSeekBar_cacheBarLayer, true);
+        mInterpolation = a.getInt(R.styleable.ColorSeekBar_interpolation, ColorGradient.INTERPOLATION_SRGB);
+        mBarRenderMode = a.getInt(R.styleable.ColorSeekBar_barRenderMode, BAR_RENDER_AUTO);
         a.recycle();
 
         if (colorsId != 0) {
@@ -115,15 +221,8 @@ public class ColorSeekBar extends View {
         previewCirclePaint.setStyle(Paint.Style.FILL);
         previewCirclePaint.setStrokeJoin(Paint.Join.ROUND);
 
-        previewStrokePaint.setColor(Color.WHITE);
-        previewStrokePaint.setStyle(Paint.Style.STROKE);
-        previewStrokePaint.setStrokeJoin(Paint.Join.ROUND);
-        previewStrokePaint.setStrokeWidth(previewCircleStrokeWidth * 2);
-
-        colorBarStrokePaint.setColor(colorBarStrokeColor);
-        colorBarStrokePaint.setStyle(Paint.Style.STROKE);
-        colorBarStrokePaint.setStrokeJoin(Paint.Join.ROUND);
-        colorBarStrokePaint.setStrokeWidth(dp2px(1));
+        ColorBarRenderer.setUpThumbStrokePaint(previewStrokePaint, previewCircleStrokeWidth);
+        ColorBarRenderer.setUpStrokePaint(colorBarStrokePaint, colorBarStrokeColor, dp2px(ColorBarRenderer.DEFAULT_STROKE_WIDTH_DP));
     }
 
     @Override
@@ -183,6 +282,17 @@ public class ColorSeekBar extends View {
     }
 
     private void init() {
+        mInitPending = false;
+        boolean trace = ColorSeekBarMetrics.beginSection(ColorSeekBarMetrics.SECTION_INIT);
+        long start = mMetricsEnabled ? System.nanoTime() : 0;
+        initBar();
+        if (mMetricsEnabled) {
+            mMetrics.getInitTimes().record(System.nanoTime() - start);
+        }
+        ColorSeekBarMetrics.endSection(trace);
+    }
+
+    private void initBar() {
         //init size
         mThumbRadius = mThumbHeight / 2;
         int horizontalPaddingSize;
@@ -209,44 +319,255 @@ public class ColorSeekBar extends View {
         mColorRect = new Rect(realLeft, realTop, realRight, realTop + mBarHeight);
 
         //init paint
-        LinearGradient mColorGradient = new LinearGradient(mColorRect.left, 0, mColorRect.right, 0, mColorSeeds, null, Shader.TileMode.CLAMP);
         mColorRectPaint = new Paint();
-        mColorRectPaint.setShader(mColorGradient);
+        mColorRectPaint.setShader(createColorBarShader());
         mColorRectPaint.setAntiAlias(true);
+        mAlphaShaderDirty = true;
+        invalidateBarLayer();
         cacheColors();
         setAlphaValue();
     }
 
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        //an edit changed the bar's geometry but not the view's size, see Editor#apply()
+        if (mInitPending) {
+            init();
+        }
+    }
+
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        if (mIsVertical) {
-            mTransparentBitmap = Bitmap.createBitmap(h, w, Bitmap.Config.ARGB_4444);
-        } else {
-            mTransparentBitmap = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_4444);
-        }
-        mTransparentBitmap.eraseColor(Color.TRANSPARENT);
         init();
         mInit = true;
         if (mColorsToInvoke != -1) {
-            setColor(mColorsToInvoke);
+            setColor(mColorsToInvoke, mColorsToInvokeNearest);
         }
     }
 
 
+    /**
+     * LinearGradient only mixes sRGB values and gets slow with many stops, see {@link #isBarTextureRendering()}.
+     * The texture is filled from the same gradient as the picked colors, so its cost only depends on the bar width.
+     */
+    private Shader createColorBarShader() {
+        if (!isBarTextureRendering()) {
+            //LinearGradient needs two colors, a single seed fills the bar
+            int[] seeds = mColorSeeds.length == 1 ? new int[]{mColorSeeds[0], mColorSeeds[0]} : mColorSeeds;
+            return new LinearGradient(mColorRect.left, 0, mColorRect.right, 0, seeds, null, Shader.TileMode.CLAMP);
+        }
+        int width = Math.max(1, mColorRect.width());
+        if (mBarTextureColors == null || mBarTextureColors.length != width) {
+            mBarTextureColors = new int[width];
+        }
+        new ColorGradient(mColorSeeds, width - 1, mInterpolation).fill(mBarTextureColors);
+        //a texture still referenced by a recorded bar layer must not be recycled, the old one is left to the GC
+        if (mBarTexture == null || mBarTexture.getWidth() != width) {
+            mBarTexture = Bitmap.createBitmap(width, 1, Bitmap.Config.ARGB_8888);
+        }
+        mBarTexture.setPixels(mBarTextureColors, 0, width, 0, 0, width, 1);
+        BitmapShader shader = new BitmapShader(mBarTexture, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        Matrix matrix = new Matrix();
+        matrix.setTranslate(mColorRect.left, 0);
+        shader.setLocalMatrix(matrix);
+        return shader;
+    }
+
     private void cacheColors() {
+        boolean trace = ColorSeekBarMetrics.beginSection(ColorSeekBarMetrics.SECTION_CACHE_COLORS);
+        long start = mMetricsEnabled ? System.nanoTime() : 0;
+        boolean rebuilt = cacheColorTable();
+        if (rebuilt && mMetricsEnabled) {
+            mMetrics.getCacheColorsTimes().record(System.nanoTime() - start);
+        }
+        ColorSeekBarMetrics.endSection(trace);
+    }
+
+    /**
+     * @return false if the table was up to date
+     */
+    private boolean cacheColorTable() {
         //if the view's size hasn't been initialized. do not cache.
         if (mBarWidth < 1) {
+            return false;
+        }
+        ColorGradient gradient = getColorGradient();
+        int strategy = mColorResolution;
+        if (strategy == ColorResolver.AUTO) {
+            strategy = ColorResolver.chooseStrategy(gradient.getColorCount());
+        }
+        //e.g. a new size, the table doesn't depend on it
+        if (mColors != null && strategy == mColorsStrategy && gradient.equals(mColorsGradient)) {
+            return false;
+        }
+        mColorsGradient = gradient;
+        mColorsStrategy = strategy;
+        int generation = ++mColorTableGeneration;
+        mColorIndexDirty = true;
+        mNearestIndexDirty = true;
+        //only an eager table is worth building off the UI thread, lazy chunks and analytic colors are cheap
+        if (mColorTableExecutor == null || strategy != ColorResolver.EAGER) {
+            publishColorTable(createColorTable(gradient, strategy));
+            return true;
+        }
+        //until the table is built, resolve the new colors from the seeds so drawing and getColor stay consistent
+        mColors = ColorResolver.create(gradient, ColorResolver.ANALYTIC);
+        mColorCount = mColors.getColorCount();
+        mMetrics.recordTableBytes(0);
+        startColorTableBuild(gradient, generation);
+        return true;
+    }
+
+    /**
+     * Build the eager table of gradient on the executor, or right away if it was removed in the meantime.
+     */
+    private void startColorTableBuild(ColorGradient gradient, int generation) {
+        mColorTableBuildDropped = false;
+        if (mColorTableExecutor == null) {
+            publishColorTable(createColorTable(gradient, ColorResolver.EAGER));
             return;
         }
-        mColors.clear();
-        for (int i = 0; i <= mMaxPosition; i++) {
-            mColors.add(pickColor(i));
+        mColorTablePending = true;
+        mColorTableExecutor.execute(new ColorTableBuild(gradient, generation));
+    }
+
+    /**
+     * Eager tables are immutable and shared with every bar using the same seeds and maxPosition.
+     */
+    private static ColorResolver createColorTable(ColorGradient gradient, int strategy) {
+        if (strategy == ColorResolver.EAGER) {
+            return ColorTableCache.getDefault().get(gradient);
+        }
+        return ColorResolver.create(gradient, strategy);
+    }
+
+    /**
+     * {@link #prewarm(int[], int, int)} with {@link ColorGradient#INTERPOLATION_SRGB}, the default of the bars.
+     */
+    public static void prewarm(int[] colorSeeds, int maxPosition) {
+        prewarm(colorSeeds, maxPosition, ColorGradient.INTERPOLATION_SRGB);
+    }
+
+    /**
+     * Build the color table of a configuration ahead of time, so bars using it don't build their own.
+     * Safe to call from any thread, e.g. a background thread during startup.
+     *
+     * @param colorSeeds    same as {@link #setColorSeeds(int[])}
+     * @param maxPosition   same as {@link #setMaxPosition(int)}
+     * @param interpolation same as {@link #setInterpolation(int)}, only bars with this interpolation use the table
+     * @see ColorTableCache
+     */
+    public static void prewarm(int[] colorSeeds, int maxPosition, int interpolation) {
+        ColorGradient gradient = new ColorGradient(colorSeeds, maxPosition, interpolation);
+        if (ColorResolver.chooseStrategy(gradient.getColorCount()) == ColorResolver.EAGER) {
+            ColorTableCache.getDefault().prewarm(gradient);
+        }
+    }
+
+    /**
+     * Swap in a complete table, on the UI thread only.
+     */
+    private void publishColorTable(ColorResolver colors) {
+        mColorTablePending = false;
+        mColorTableBuildDropped = false;
+        mColors = colors;
+        mColorCount = colors.getColorCount();
+        mMetrics.recordTableBytes(colors.getTableBytes());
+        if (mOnColorTableReadyListener != null) {
+            mOnColorTableReadyListener.onColorTableReady(this);
+        }
+    }
+
+    private final class ColorTableBuild implements Runnable {
+        private final ColorGradient mGradient;
+        private final int mGeneration;
+        private ColorResolver mResult;
+
+        ColorTableBuild(ColorGradient gradient, int generation) {
+            mGradient = gradient;
+            mGeneration = generation;
+        }
+
+        @Override
+        public void run() {
+            if (mResult == null) {
+                //background thread. View.post would queue to a run queue shared by every window while detached
+                mResult = createColorTable(mGradient, ColorResolver.EAGER);
+                sMainHandler.post(this);
+            } else if (mGeneration == mColorTableGeneration) {
+                //UI thread, drop the table if seeds or maxPosition changed or the view was detached while it was built
+                publishColorTable(mResult);
+            }
+        }
+    }
+
+    /**
+     * Build the color table on an executor instead of the UI thread when seeds or maxPosition change.
+     * In the meantime colors are computed from the seeds, see {@link ColorResolver#ANALYTIC}, so they never change.
+     * A build that finishes while the view is detached is dropped and started again once it is attached.
+     *
+     * @param executor null to build synchronously (default)
+     */
+    public void setColorTableExecutor(Executor executor) {
+        mColorTableExecutor = executor;
+    }
+
+    public Executor getColorTableExecutor() {
+        return mColorTableExecutor;
+    }
+
+    /**
+     * @param listener called on the UI thread once the table for the current seeds and maxPosition is in use
+     */
+    public void setOnColorTableReadyListener(OnColorTableReadyListener listener) {
+        mOnColorTableReadyListener = listener;
+    }
+
+    /**
+     * @param position between 0-maxValue
+     * @return color without alpha value, from the cache once it is built
+     */
+    private int colorAt(int position) {
+        if (position < mColorCount) {
+            return mColors.colorAt(position);
+        }
+        //pick mode
+        return pickColor(position);
+    }
+
+    /**
+     * Choose how the color of each position is resolved, all strategies return the same colors.
+     *
+     * @param resolution {@link ColorResolver#AUTO} (default) picks from maxPosition and the available memory,
+     *                   {@link ColorResolver#EAGER} fills a table up front, {@link ColorResolver#LAZY} fills it on demand in chunks,
+     *                   {@link ColorResolver#ANALYTIC} computes every color from the seeds without a table
+     */
+    public void setColorResolution(int resolution) {
+        if (resolution < ColorResolver.AUTO || resolution > ColorResolver.ANALYTIC) {
+            throw new IllegalArgumentException("unknown resolution: " + resolution);
         }
+        mColorResolution = resolution;
+        cacheColors();
+    }
+
+    public int getColorResolution() {
+        return mColorResolution;
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
+        boolean trace = ColorSeekBarMetrics.beginSection(ColorSeekBarMetrics.SECTION_DRAW);
+        long start = mMetricsEnabled ? System.nanoTime() : 0;
+        drawBar(canvas);
+        if (mMetricsEnabled) {
+            mMetrics.getDrawTimes().record(System.nanoTime() - start);
+        }
+        ColorSeekBarMetrics.endSection(trace);
+    }
+
+    private void drawBar(Canvas canvas) {
         if (mIsVertical) {
             canvas.rotate(-90);
             canvas.translate(-getHeight(), 0);
@@ -257,20 +578,14 @@ public class ColorSeekBar extends View {
 
         colorPaint.setAntiAlias(true);
         int color = getColor(false);
-        int colorStartTransparent = Color.argb(mAlphaMaxPosition, Color.red(color), Color.green(color), Color.blue(color));
-        int colorEndTransparent = Color.argb(mAlphaMinPosition, Color.red(color), Color.green(color), Color.blue(color));
         colorPaint.setColor(color);
-        //int[] toAlpha = new int[]{colorStartTransparent, colorEndTransparent};
-        toAlpha[0] = colorStartTransparent;
-        toAlpha[1] = colorEndTransparent;
-
-        //clear
-        canvas.drawBitmap(mTransparentBitmap, 0, 0, null);
 
         //draw color bar
-        colorBarBackupRectF.set(mColorRect);
-        canvas.drawRoundRect(colorBarBackupRectF, colorBarBackupRectF.height() / 2, colorBarBackupRectF.height() / 2, colorBarStrokePaint);
-        canvas.drawRoundRect(colorBarBackupRectF, colorBarBackupRectF.height() / 2, colorBarBackupRectF.height() / 2, mColorRectPaint);
+        if (mCacheBarLayer) {
+            drawBarLayer(canvas);
+        } else {
+            drawColorBar(canvas);
+        }
         //draw color bar thumb
         float thumbX = colorPosition + realLeft;
         float thumbY = mColorRect.top + mColorRect.height() / 2;
@@ -291,33 +606,32 @@ public class ColorSeekBar extends View {
         }
 
         if (mIsShowAlphaBar) {
-            //init rect
-            int top = (int) (mThumbHeight + mThumbRadius + mBarHeight + mBarMargin + getPreviewCircleTotalHeight());
-            mAlphaRect.set(realLeft, top, realRight, top + mBarHeight);
-            //draw alpha bar
-            alphaBarPaint.setAntiAlias(true);
-            LinearGradient alphaBarShader = new LinearGradient(0, 0, mAlphaRect.width(), 0, toAlpha, null, Shader.TileMode.CLAMP);
-            alphaBarPaint.setShader(alphaBarShader);
+            updateAlphaRect();
+            //draw alpha bar, the masks take the color of the paint
+            if (mAlphaShaderDirty) {
+                updateAlphaMasks();
+            }
+            alphaBarPaint.setColor(color | 0xFF000000);
+            alphaThumbGradientPaint.setColor(color | 0xFF000000);
             canvas.drawRect(mAlphaRect, alphaBarPaint);
 
             //draw alpha bar thumb
             float alphaPosition = (float) (mAlphaBarPosition - mAlphaMinPosition) / (mAlphaMaxPosition - mAlphaMinPosition) * mBarWidth;
             float alphaThumbX = alphaPosition + realLeft;
             float alphaThumbY = mAlphaRect.top + mAlphaRect.height() / 2;
-            canvas.drawCircle(alphaThumbX, alphaThumbY, mBarHeight / 2 + 5, colorPaint);
+            canvas.drawCircle(alphaThumbX, alphaThumbY, mBarHeight / 2 + ColorBarRenderer.ALPHA_THUMB_DOT_EXTRA, colorPaint);
 
-            //draw alpha bar thumb radial gradient shader
-            RadialGradient alphaThumbShader = new RadialGradient(alphaThumbX, alphaThumbY, mThumbRadius, toAlpha, null, Shader.TileMode.MIRROR);
-
-            alphaThumbGradientPaint.setAntiAlias(true);
-            alphaThumbGradientPaint.setShader(alphaThumbShader);
-            canvas.drawCircle(alphaThumbX, alphaThumbY, mThumbHeight / 2, alphaThumbGradientPaint);
+            //draw alpha bar thumb radial gradient
+            float maskCenter = mAlphaThumbMask.getWidth() / 2f;
+            canvas.drawBitmap(mAlphaThumbMask, alphaThumbX - maskCenter, alphaThumbY - maskCenter, alphaThumbGradientPaint);
         }
+        getThumbBounds(mDrawnThumbBounds);
 
         if (mFirstDraw) {
             if (mOnColorChangeLister != null) {
                 mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
             }
+            publishColor();
             mFirstDraw = false;
 
             if (mOnInitDoneListener != null) {
@@ -327,197 +641,570 @@ public class ColorSeekBar extends View {
         super.onDraw(canvas);
     }
 
+    @Override
+    public void invalidate() {
+        //also called by View's constructor, before the fields are initialized
+        if (mMetricsEnabled) {
+            mMetrics.recordInvalidate(false);
+        }
+        super.invalidate();
+    }
 
     @Override
-    public boolean onTouchEvent(MotionEvent event) {
-        float x = mIsVertical ? event.getY() : event.getX();
-        float y = mIsVertical ? event.getX() : event.getY();
-        switch (event.getAction()) {
-            case MotionEvent.ACTION_DOWN:
-                if (isOnBar(mColorRect, x, y)) {
-                    mMovingColorBar = true;
-                } else if (mIsShowAlphaBar) {
-                    if (isOnBar(mAlphaRect, x, y)) {
-                        mMovingAlphaBar = true;
-                    }
-                }
-                invalidate();
-                break;
-            case MotionEvent.ACTION_MOVE:
-                getParent().requestDisallowInterceptTouchEvent(true);
-                if (mMovingColorBar) {
-                    float value = (x - realLeft) / mBarWidth * mMaxPosition;
-                    mColorBarPosition = (int) value;
-                    if (mColorBarPosition < 0) {
-                        mColorBarPosition = 0;
-                    }
-                    if (mColorBarPosition > mMaxPosition) {
-                        mColorBarPosition = mMaxPosition;
-                    }
-                } else if (mIsShowAlphaBar) {
-                    if (mMovingAlphaBar) {
-                        float value = (x - realLeft) / (float) mBarWidth * (mAlphaMaxPosition - mAlphaMinPosition) + mAlphaMinPosition;
-                        mAlphaBarPosition = (int) value;
-                        if (mAlphaBarPosition < mAlphaMinPosition) {
-                            mAlphaBarPosition = mAlphaMinPosition;
-                        } else if (mAlphaBarPosition > mAlphaMaxPosition) {
-                            mAlphaBarPosition = mAlphaMaxPosition;
-                        }
-                        setAlphaValue();
-                    }
-                }
-                if (mOnColorChangeLister != null && (mMovingAlphaBar || mMovingColorBar)) {
-                    mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
-                }
-                invalidate();
-                break;
-            case MotionEvent.ACTION_CANCEL:
-            case MotionEvent.ACTION_UP:
-                if (mOnColorChangeLister != null && (mMovingAlphaBar || mMovingColorBar)) {
-                    mOnColorChangeLister.onColorChangeActionUp(mColorBarPosition, mAlphaBarPosition, getColor());
-                }
-                mMovingColorBar = false;
-                mMovingAlphaBar = false;
-                invalidate();
-                break;
-            default:
+    public void invalidate(Rect dirty) {
+        if (mMetricsEnabled) {
+            mMetrics.recordInvalidate(true);
         }
-        return mMovingColorBar || mMovingAlphaBar; //如果点击了拖动条 才接受触摸事件
+        super.invalidate(dirty);
     }
 
-    /***
+    /**
+     * Record timings and counters into {@link #getMetrics()}, off by default.
      *
-     * @param alphaMaxPosition <= 255 && > alphaMinPosition
+     * @param enabled
      */
-    public void setAlphaMaxPosition(int alphaMaxPosition) {
-        mAlphaMaxPosition = alphaMaxPosition;
-        if (mAlphaMaxPosition > 255) {
-            mAlphaMaxPosition = 255;
-        } else if (mAlphaMaxPosition <= mAlphaMinPosition) {
-            mAlphaMaxPosition = mAlphaMinPosition + 1;
-        }
-
-        if (mAlphaBarPosition > mAlphaMinPosition) {
-            mAlphaBarPosition = mAlphaMaxPosition;
-        }
-        invalidate();
+    public void setMetricsEnabled(boolean enabled) {
+        mMetricsEnabled = enabled;
     }
 
-    public int getAlphaMaxPosition() {
-        return mAlphaMaxPosition;
+    public boolean isMetricsEnabled() {
+        return mMetricsEnabled;
     }
 
-    /***
-     *
-     * @param alphaMinPosition >=0 && < alphaMaxPosition
+    /**
+     * @return the metrics of this bar, only updated while {@link #setMetricsEnabled(boolean)} is on
      */
-    public void setAlphaMinPosition(int alphaMinPosition) {
-        this.mAlphaMinPosition = alphaMinPosition;
-        if (mAlphaMinPosition >= mAlphaMaxPosition) {
-            mAlphaMinPosition = mAlphaMaxPosition - 1;
-        } else if (mAlphaMinPosition < 0) {
-            mAlphaMinPosition = 0;
-        }
+    public ColorSeekBarMetrics getMetrics() {
+        return mMetrics;
+    }
 
-        if (mAlphaBarPosition < mAlphaMinPosition) {
-            mAlphaBarPosition = mAlphaMinPosition;
-        }
-        invalidate();
+    public void resetMetrics() {
+        mMetrics.reset();
     }
 
-    public int getAlphaMinPosition() {
-        return mAlphaMinPosition;
+    private void drawColorBar(Canvas canvas) {
+        colorBarBackupRectF.set(mColorRect);
+        canvas.drawRoundRect(colorBarBackupRectF, colorBarBackupRectF.height() / 2, colorBarBackupRectF.height() / 2, colorBarStrokePaint);
+        canvas.drawRoundRect(colorBarBackupRectF, colorBarBackupRectF.height() / 2, colorBarBackupRectF.height() / 2, mColorRectPaint);
     }
 
     /**
-     * @param r
-     * @param x
-     * @param y
-     * @return whether MotionEvent is performing on bar or not
+     * Draw the color bar from a retained layer, a recorded picture on hardware canvases and a bitmap otherwise.
+     * The layer is only rendered again after {@link #invalidateBarLayer()}.
      */
-    private boolean isOnBar(Rect r, float x, float y) {
-        if (r.left - mThumbRadius < x && x < r.right + mThumbRadius && r.top - mThumbRadius < y && y < r.bottom + mThumbRadius) {
-            return true;
-        } else {
-            return false;
+    private void drawBarLayer(Canvas canvas) {
+        int outset = (int) Math.ceil(colorBarStrokePaint.getStrokeWidth()) + 1;
+        mBarLayerBounds.set(mColorRect);
+        mBarLayerBounds.inset(-outset, -outset);
+        int width = mBarLayerBounds.width();
+        int height = mBarLayerBounds.height();
+        if (width < 1 || height < 1) {
+            return;
+        }
+
+        //drawing pictures on hardware canvases is supported since M
+        if (canvas.isHardwareAccelerated() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            if (mBarLayerPicture == null) {
+                mBarLayerPicture = new Picture();
+            }
+            if (!mBarLayerPictureValid) {
+                Canvas recordingCanvas = mBarLayerPicture.beginRecording(width, height);
+                recordingCanvas.translate(-mBarLayerBounds.left, -mBarLayerBounds.top);
+                drawColorBar(recordingCanvas);
+                mBarLayerPicture.endRecording();
+                mBarLayerPictureValid = true;
+            }
+            int saveCount = canvas.save();
+            canvas.translate(mBarLayerBounds.left, mBarLayerBounds.top);
+            canvas.drawPicture(mBarLayerPicture);
+            canvas.restoreToCount(saveCount);
+            return;
+        }
+
+        //reuse the bitmap as long as the bar fits in it, an outgrown one may still be in a display list and is left to the GC
+        if (mBarLayerBitmap == null || mBarLayerBitmap.getWidth() < width || mBarLayerBitmap.getHeight() < height) {
+            mBarLayerBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mBarLayerCanvas = new Canvas(mBarLayerBitmap);
+            mBarLayerBitmapValid = false;
+        }
+        if (!mBarLayerBitmapValid) {
+            mBarLayerBitmap.eraseColor(Color.TRANSPARENT);
+            mBarLayerCanvas.translate(-mBarLayerBounds.left, -mBarLayerBounds.top);
+            drawColorBar(mBarLayerCanvas);
+            mBarLayerCanvas.translate(mBarLayerBounds.left, mBarLayerBounds.top);
+            mBarLayerBitmapValid = true;
         }
+        canvas.drawBitmap(mBarLayerBitmap, mBarLayerBounds.left, mBarLayerBounds.top, null);
     }
 
     /**
-     * @return
-     * @deprecated use {@link #setOnInitDoneListener(OnInitDoneListener)} instead.
+     * The color bar layer has to be rendered again, called when seeds, size, bar height or stroke color change.
      */
-    public boolean isFirstDraw() {
-        return mFirstDraw;
+    private void invalidateBarLayer() {
+        mBarLayerBitmapValid = false;
+        mBarLayerPictureValid = false;
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (mColorTableBuildDropped) {
+            startColorTableBuild(mColorsGradient, ++mColorTableGeneration);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        cancelColorChangeDispatch();
+        //drop a pending build, it is started again on attach
+        if (mColorTablePending) {
+            mColorTableGeneration++;
+            mColorTableBuildDropped = true;
+        }
+    }
 
     /**
-     * @param value
-     * @return color
+     * Forward {@link ComponentCallbacks2#onTrimMemory(int)}, e.g. from the Activity. The retained bar layer is kept
+     * across detach and attach, see {@link #setCacheBarLayer(boolean)}, and freed here once memory runs low or the UI
+     * is hidden. It is rendered again on the next draw.
+     *
+     * @param level the level passed to onTrimMemory
      */
-    private int pickColor(int value) {
-        return pickColor((float) value / mMaxPosition * mBarWidth);
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            releaseBarLayer();
+        }
     }
 
     /**
-     * @param position
-     * @return color
+     * A display list recorded from the layer may still draw it, so the bitmap is left to the GC instead of recycled.
      */
-    private int pickColor(float position) {
-        float unit = position / mBarWidth;
-        if (unit <= 0.0) {
-            return mColorSeeds[0];
+    private void releaseBarLayer() {
+        if (mBarLayerBitmap == null && mBarLayerPicture == null) {
+            return;
         }
+        mBarLayerBitmap = null;
+        mBarLayerCanvas = null;
+        mBarLayerPicture = null;
+        invalidateBarLayer();
+        invalidate();
+    }
 
-
-        if (unit >= 1) {
-            return mColorSeeds[mColorSeeds.length - 1];
+    /**
+     * Render the color bar once into a retained layer, so dragging only redraws the thumbs. Enabled by default.
+     *
+     * @param cache
+     */
+    public void setCacheBarLayer(boolean cache) {
+        mCacheBarLayer = cache;
+        if (cache) {
+            invalidateBarLayer();
+        } else {
+            releaseBarLayer();
         }
+        invalidate();
+    }
 
-        float colorPosition = unit * (mColorSeeds.length - 1);
-        int i = (int) colorPosition;
-        colorPosition -= i;
-        int c0 = mColorSeeds[i];
-        int c1 = mColorSeeds[i + 1];
-//         mAlpha = mix(Color.alpha(c0), Color.alpha(c1), colorPosition);
-        int mRed = mix(Color.red(c0), Color.red(c1), colorPosition);
-        int mGreen = mix(Color.green(c0), Color.green(c1), colorPosition);
-        int mBlue = mix(Color.blue(c0), Color.blue(c1), colorPosition);
-        return Color.rgb(mRed, mGreen, mBlue);
+    public boolean isCacheBarLayer() {
+        return mCacheBarLayer;
     }
 
     /**
-     * @param start
-     * @param end
-     * @param position
-     * @return
+     * @param color color of the stroke around the color bar
      */
-    private int mix(int start, int end, float position) {
-        return start + Math.round(position * (end - start));
+    public void setColorBarStrokeColor(int color) {
+        colorBarStrokePaint.setColor(color);
+        invalidateBarLayer();
+        invalidate();
     }
 
-    public int getColor() {
-        return getColor(mIsShowAlphaBar);
+    public int getColorBarStrokeColor() {
+        return colorBarStrokePaint.getColor();
+    }
+
+    private void updateAlphaRect() {
+        int top = (int) (mThumbHeight + mThumbRadius + mBarHeight + mBarMargin + getPreviewCircleTotalHeight());
+        mAlphaRect.set(realLeft, top, realRight, top + mBarHeight);
     }
 
     /**
-     * @param withAlpha
-     * @return
+     * Bounds of everything that changes while dragging: the color thumb, the preview circle and the alpha bar with its thumb.
+     *
+     * @param out bounds in view coordinates
      */
-    public int getColor(boolean withAlpha) {
-        //pick mode
-        if (mColorBarPosition >= mColors.size()) {
-            int color = pickColor(mColorBarPosition);
-            if (withAlpha) {
-                return color;
-            } else {
-                return Color.argb(getAlphaValue(), Color.red(color), Color.green(color), Color.blue(color));
-            }
-        }
+    private void getThumbBounds(Rect out) {
+        float colorPosition = (float) mColorBarPosition / mMaxPosition * mBarWidth;
+        int thumbX = (int) (colorPosition + realLeft);
+        int thumbY = mColorRect.top + mColorRect.height() / 2;
+        int radius = (int) Math.ceil(mThumbHeight / 2 + previewCircleStrokeWidth) + 1;
+        out.set(thumbX - radius, thumbY - radius, thumbX + radius, thumbY + radius);
 
-        //cache mode
-        int color = mColors.get(mColorBarPosition);
+        if (showPreviewCircle && mMovingColorBar) {
+            int previewCircleY = (int) (mColorRect.top - mThumbHeight / 2 - previewCircleMargin - previewCircleRadius - previewCircleStrokeWidth);
+            int previewRadius = (int) Math.ceil(previewCircleRadius + previewCircleStrokeWidth) + 1;
+            out.union(thumbX - previewRadius, previewCircleY - previewRadius, thumbX + previewRadius, previewCircleY + previewRadius);
+        }
+
+        if (mIsShowAlphaBar) {
+            updateAlphaRect();
+            int alphaThumbY = mAlphaRect.top + mAlphaRect.height() / 2;
+            int alphaRadius = Math.max(mThumbHeight / 2, mBarHeight / 2 + ColorBarRenderer.ALPHA_THUMB_DOT_EXTRA) + 1;
+            out.union(mAlphaRect.left - alphaRadius, alphaThumbY - alphaRadius, mAlphaRect.right + alphaRadius, alphaThumbY + alphaRadius);
+        }
+
+        //vertical bars are drawn transposed
+        if (mIsVertical) {
+            out.set(out.top, out.left, out.bottom, out.right);
+        }
+    }
+
+    /**
+     * Invalidate the union of the last drawn thumb bounds and the current ones instead of the whole view.
+     */
+    private void invalidateThumbs() {
+        if (mColorRect == null) {
+            invalidate();
+            return;
+        }
+        getThumbBounds(mDirtyRect);
+        mDirtyRect.union(mDrawnThumbBounds);
+        invalidate(mDirtyRect);
+    }
+
+    /**
+     * Rebuild the alpha bar and alpha thumb masks, only needed when the size or the alpha range changes.
+     * The masks are ALPHA_8 and drawn in the paint's color, so dragging the color allocates no shaders.
+     */
+    private void updateAlphaMasks() {
+        mAlphaBarMask = AlphaMasks.createBarMask(mAlphaBarMask, Math.max(1, mAlphaRect.width()), mAlphaMaxPosition, mAlphaMinPosition);
+        alphaBarPaint.setShader(new BitmapShader(mAlphaBarMask, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+        mAlphaThumbMask = AlphaMasks.createThumbMask(mAlphaThumbMask, mThumbHeight, mAlphaMaxPosition, mAlphaMinPosition);
+        mAlphaShaderDirty = false;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean trace = ColorSeekBarMetrics.beginSection(ColorSeekBarMetrics.SECTION_TOUCH);
+        boolean handled = handleTouchEvent(event);
+        ColorSeekBarMetrics.endSection(trace);
+        return handled;
+    }
+
+    private boolean handleTouchEvent(MotionEvent event) {
+        float x = mIsVertical ? event.getY() : event.getX();
+        float y = mIsVertical ? event.getX() : event.getY();
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                if (isOnBar(mColorRect, x, y)) {
+                    mMovingColorBar = true;
+                } else if (mIsShowAlphaBar) {
+                    if (isOnBar(mAlphaRect, x, y)) {
+                        mMovingAlphaBar = true;
+                    }
+                }
+                //only the preview circle appears on touch down
+                if (showPreviewCircle && mMovingColorBar) {
+                    invalidateThumbs();
+                }
+                break;
+            case MotionEvent.ACTION_MOVE:
+                getParent().requestDisallowInterceptTouchEvent(true);
+                if (mOnColorSamplesListener != null && (mMovingAlphaBar || mMovingColorBar)) {
+                    dispatchColorSamples(event);
+                }
+                int lastColorBarPosition = mColorBarPosition;
+                int lastAlphaBarPosition = mAlphaBarPosition;
+                if (mMovingColorBar) {
+                    mColorBarPosition = colorBarPositionAt(x);
+                } else if (mIsShowAlphaBar) {
+                    if (mMovingAlphaBar) {
+                        mAlphaBarPosition = alphaBarPositionAt(x);
+                        setAlphaValue();
+                    }
+                }
+                //sub-unit moves and moves past the ends change nothing
+                if (mColorBarPosition == lastColorBarPosition && mAlphaBarPosition == lastAlphaBarPosition) {
+                    break;
+                }
+                if (mOnColorChangeLister != null && (mMovingAlphaBar || mMovingColorBar)) {
+                    //a conflated dispatch is measured from the latest event it delivers
+                    mPendingTouchTime = event.getEventTime();
+                    requestColorChangeDispatch();
+                }
+                publishColor();
+                invalidateThumbs();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+            case MotionEvent.ACTION_UP:
+                //deliver the latest conflated change before the action up
+                if (mColorChangePending) {
+                    dispatchColorChange();
+                }
+                cancelColorChangeDispatch();
+                if (mOnColorChangeLister != null && (mMovingAlphaBar || mMovingColorBar)) {
+                    mPendingTouchTime = event.getEventTime();
+                    boolean dispatchTrace = ColorSeekBarMetrics.beginSection(ColorSeekBarMetrics.SECTION_DISPATCH);
+                    long start = mMetricsEnabled ? System.nanoTime() : 0;
+                    mOnColorChangeLister.onColorChangeActionUp(mColorBarPosition, mAlphaBarPosition, getColor());
+                    recordDispatch(start);
+                    ColorSeekBarMetrics.endSection(dispatchTrace);
+                }
+                boolean hidePreviewCircle = showPreviewCircle && mMovingColorBar;
+                mMovingColorBar = false;
+                mMovingAlphaBar = false;
+                if (hidePreviewCircle) {
+                    invalidateThumbs();
+                }
+                break;
+            default:
+        }
+        return mMovingColorBar || mMovingAlphaBar; //如果点击了拖动条 才接受触摸事件
+    }
+
+    private int colorBarPositionAt(float x) {
+        float value = (x - realLeft) / mBarWidth * mMaxPosition;
+        int position = (int) value;
+        if (position < 0) {
+            position = 0;
+        }
+        if (position > mMaxPosition) {
+            position = mMaxPosition;
+        }
+        return position;
+    }
+
+    private int alphaBarPositionAt(float x) {
+        float value = (x - realLeft) / (float) mBarWidth * (mAlphaMaxPosition - mAlphaMinPosition) + mAlphaMinPosition;
+        int position = (int) value;
+        if (position < mAlphaMinPosition) {
+            position = mAlphaMinPosition;
+        } else if (position > mAlphaMaxPosition) {
+            position = mAlphaMaxPosition;
+        }
+        return position;
+    }
+
+    /**
+     * Deliver the historical and current samples of a move event in one call.
+     */
+    private void dispatchColorSamples(MotionEvent event) {
+        int historySize = event.getHistorySize();
+        mColorSamples.reset(historySize + 1);
+        for (int h = 0; h < historySize; h++) {
+            float x = mIsVertical ? event.getHistoricalY(h) : event.getHistoricalX(h);
+            addColorSample(x, event.getHistoricalEventTime(h));
+        }
+        addColorSample(mIsVertical ? event.getY() : event.getX(), event.getEventTime());
+        mOnColorSamplesListener.onColorSamples(mColorSamples);
+    }
+
+    private void addColorSample(float x, long eventTime) {
+        int colorBarPosition = mMovingColorBar ? colorBarPositionAt(x) : mColorBarPosition;
+        int alphaBarPosition = mMovingAlphaBar ? alphaBarPositionAt(x) : mAlphaBarPosition;
+        int color = colorAt(colorBarPosition);
+        if (mIsShowAlphaBar) {
+            color = Color.argb(255 - alphaBarPosition, Color.red(color), Color.green(color), Color.blue(color));
+        }
+        mColorSamples.add(colorBarPosition, alphaBarPosition, color, eventTime);
+    }
+
+    /**
+     * Deliver a touch driven color change according to the dispatch mode.
+     */
+    private void requestColorChangeDispatch() {
+        switch (mDispatchMode) {
+            case DISPATCH_PER_FRAME:
+                mColorChangePending = true;
+                if (!mColorChangeScheduled) {
+                    mColorChangeScheduled = true;
+                    ViewCompat.postOnAnimation(this, mDispatchPendingColorChange);
+                }
+                break;
+            case DISPATCH_MIN_INTERVAL:
+                long elapsed = SystemClock.uptimeMillis() - mLastDispatchTime;
+                if (elapsed >= mDispatchInterval && !mColorChangeScheduled) {
+                    dispatchColorChange();
+                } else {
+                    mColorChangePending = true;
+                    if (!mColorChangeScheduled) {
+                        mColorChangeScheduled = true;
+                        postDelayed(mDispatchPendingColorChange, mDispatchInterval - elapsed);
+                    }
+                }
+                break;
+            default:
+                dispatchColorChange();
+        }
+    }
+
+    private void dispatchColorChange() {
+        mColorChangePending = false;
+        mLastDispatchTime = SystemClock.uptimeMillis();
+        if (mOnColorChangeLister != null) {
+            boolean trace = ColorSeekBarMetrics.beginSection(ColorSeekBarMetrics.SECTION_DISPATCH);
+            long start = mMetricsEnabled ? System.nanoTime() : 0;
+            mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
+            recordDispatch(start);
+            ColorSeekBarMetrics.endSection(trace);
+        }
+    }
+
+    /**
+     * @param start System.nanoTime() before the listener was called
+     */
+    private void recordDispatch(long start) {
+        if (!mMetricsEnabled) {
+            mPendingTouchTime = 0;
+            return;
+        }
+        mMetrics.getDispatchTimes().record(System.nanoTime() - start);
+        if (mPendingTouchTime != 0) {
+            //event times are uptime milliseconds
+            mMetrics.getTouchLatencies().record((SystemClock.uptimeMillis() - mPendingTouchTime) * 1000000);
+            mPendingTouchTime = 0;
+        }
+    }
+
+    private void cancelColorChangeDispatch() {
+        if (mColorChangeScheduled) {
+            removeCallbacks(mDispatchPendingColorChange);
+            mColorChangeScheduled = false;
+        }
+        mColorChangePending = false;
+    }
+
+    /**
+     * Set how touch driven color changes are delivered to {@link OnColorChangeListener#onColorChangeListener(int, int, int)}.
+     * Conflated modes deliver the latest color, {@link OnColorChangeListener#onColorChangeActionUp(int, int, int)} is always delivered once.
+     *
+     * @param mode {@link #DISPATCH_PER_EVENT} (default), {@link #DISPATCH_PER_FRAME} or {@link #DISPATCH_MIN_INTERVAL}
+     */
+    public void setColorChangeDispatchMode(int mode) {
+        if (mode != DISPATCH_PER_EVENT && mode != DISPATCH_PER_FRAME && mode != DISPATCH_MIN_INTERVAL) {
+            throw new IllegalArgumentException("unknown dispatch mode: " + mode);
+        }
+        if (mColorChangePending) {
+            dispatchColorChange();
+        }
+        cancelColorChangeDispatch();
+        mDispatchMode = mode;
+    }
+
+    public int getColorChangeDispatchMode() {
+        return mDispatchMode;
+    }
+
+    /**
+     * @param millis minimum time between two color change callbacks in {@link #DISPATCH_MIN_INTERVAL} mode, 16ms by default
+     */
+    public void setColorChangeDispatchInterval(long millis) {
+        mDispatchInterval = Math.max(0, millis);
+    }
+
+    public long getColorChangeDispatchInterval() {
+        return mDispatchInterval;
+    }
+
+    /***
+     *
+     * @param alphaMaxPosition <= 255 && > alphaMinPosition
+     */
+    public void setAlphaMaxPosition(int alphaMaxPosition) {
+        mAlphaMaxPosition = alphaMaxPosition;
+        if (mAlphaMaxPosition > 255) {
+            mAlphaMaxPosition = 255;
+        } else if (mAlphaMaxPosition <= mAlphaMinPosition) {
+            mAlphaMaxPosition = mAlphaMinPosition + 1;
+        }
+
+        if (mAlphaBarPosition > mAlphaMinPosition) {
+            mAlphaBarPosition = mAlphaMaxPosition;
+        }
+        mAlphaShaderDirty = true;
+        invalidate();
+    }
+
+    public int getAlphaMaxPosition() {
+        return mAlphaMaxPosition;
+    }
+
+    /***
+     *
+     * @param alphaMinPosition >=0 && < alphaMaxPosition
+     */
+    public void setAlphaMinPosition(int alphaMinPosition) {
+        this.mAlphaMinPosition = alphaMinPosition;
+        if (mAlphaMinPosition >= mAlphaMaxPosition) {
+            mAlphaMinPosition = mAlphaMaxPosition - 1;
+        } else if (mAlphaMinPosition < 0) {
+            mAlphaMinPosition = 0;
+        }
+
+        if (mAlphaBarPosition < mAlphaMinPosition) {
+            mAlphaBarPosition = mAlphaMinPosition;
+        }
+        mAlphaShaderDirty = true;
+        invalidate();
+    }
+
+    public int getAlphaMinPosition() {
+        return mAlphaMinPosition;
+    }
+
+    /**
+     * @param r
+     * @param x
+     * @param y
+     * @return whether MotionEvent is performing on bar or not
+     */
+    private boolean isOnBar(Rect r, float x, float y) {
+        if (r.left - mThumbRadius < x && x < r.right + mThumbRadius && r.top - mThumbRadius < y && y < r.bottom + mThumbRadius) {
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * @return
+     * @deprecated use {@link #setOnInitDoneListener(OnInitDoneListener)} instead.
+     */
+    public boolean isFirstDraw() {
+        return mFirstDraw;
+    }
+
+
+    /**
+     * @param value
+     * @return color
+     */
+    private int pickColor(int value) {
+        return getColorGradient().colorAt(value);
+    }
+
+    /**
+     * @return the gradient behind the bar, immutable and usable from any thread
+     */
+    public ColorGradient getColorGradient() {
+        ColorGradient gradient = mGradient;
+        if (gradient == null) {
+            gradient = new ColorGradient(mColorSeeds, mMaxPosition, mInterpolation);
+            mGradient = gradient;
+        }
+        return gradient;
+    }
+
+    public int getColor() {
+        return getColor(mIsShowAlphaBar);
+    }
+
+    /**
+     * @param withAlpha
+     * @return
+     */
+    public int getColor(boolean withAlpha) {
+        int color = colorAt(mColorBarPosition);
 
         if (withAlpha) {
             return Color.argb(getAlphaValue(), Color.red(color), Color.green(color), Color.blue(color));
@@ -551,6 +1238,83 @@ public class ColorSeekBar extends View {
         this.mOnColorChangeLister = onColorChangeListener;
     }
 
+    public interface OnColorTableReadyListener {
+        void onColorTableReady(ColorSeekBar colorSeekBar);
+    }
+
+    public interface OnColorSamplesListener {
+        /**
+         * Called once per move event while dragging, with every sample Android batched into it.
+         *
+         * @param samples reused between calls
+         */
+        void onColorSamples(ColorSamples samples);
+    }
+
+    /**
+     * Receive full resolution drag input, see {@link ColorSamples}.
+     *
+     * @param listener
+     */
+    public void setOnColorSamplesListener(OnColorSamplesListener listener) {
+        this.mOnColorSamplesListener = listener;
+    }
+
+    public interface OnColorSnapshotListener {
+        /**
+         * Called on the subscription's executor, never concurrently for the same subscription.
+         *
+         * @param snapshot reused between calls, poll {@link ColorSnapshot#isStale()} to abandon outdated work
+         */
+        void onColorSnapshot(ColorSnapshot snapshot);
+    }
+
+    /**
+     * Receive color changes on an executor instead of the UI thread. While the listener is busy, intermediate
+     * colors are dropped and only the latest one is delivered next.
+     *
+     * @param executor runs the listener, e.g. a single background thread
+     * @param listener
+     * @return call {@link ColorSubscription#cancel()} to stop receiving colors
+     */
+    public ColorSubscription subscribeColorChanges(Executor executor, OnColorSnapshotListener listener) {
+        ColorSubscription subscription = new ColorSubscription(this, executor, listener);
+        synchronized (this) {
+            ColorSubscription[] subscriptions = mSubscriptions;
+            ColorSubscription[] newSubscriptions = new ColorSubscription[subscriptions.length + 1];
+            System.arraycopy(subscriptions, 0, newSubscriptions, 0, subscriptions.length);
+            newSubscriptions[subscriptions.length] = subscription;
+            mSubscriptions = newSubscriptions;
+        }
+        return subscription;
+    }
+
+    void removeColorSubscription(ColorSubscription subscription) {
+        synchronized (this) {
+            ColorSubscription[] subscriptions = mSubscriptions;
+            for (int i = 0; i < subscriptions.length; i++) {
+                if (subscriptions[i] == subscription) {
+                    ColorSubscription[] newSubscriptions = new ColorSubscription[subscriptions.length - 1];
+                    System.arraycopy(subscriptions, 0, newSubscriptions, 0, i);
+                    System.arraycopy(subscriptions, i + 1, newSubscriptions, i, subscriptions.length - i - 1);
+                    mSubscriptions = newSubscriptions;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publishColor() {
+        ColorSubscription[] subscriptions = mSubscriptions;
+        if (subscriptions.length == 0) {
+            return;
+        }
+        int color = getColor();
+        for (ColorSubscription subscription : subscriptions) {
+            subscription.publish(mColorBarPosition, mAlphaBarPosition, color);
+        }
+    }
+
 
     public int dp2px(float dpValue) {
         final float scale = mContext.getResources().getDisplayMetrics().density;
@@ -568,23 +1332,270 @@ public class ColorSeekBar extends View {
 
     public void setColorSeeds(int[] colors) {
         mColorSeeds = colors;
+        mGradient = null;
+        updateColors();
+    }
+
+    /**
+     * The color space the seeds are mixed in, the bar and the picked colors both follow it.
+     *
+     * @param interpolation {@link ColorGradient#INTERPOLATION_SRGB} (default), {@link ColorGradient#INTERPOLATION_LINEAR}
+     *                      or {@link ColorGradient#INTERPOLATION_OKLAB}
+     */
+    public void setInterpolation(int interpolation) {
+        if (interpolation < ColorGradient.INTERPOLATION_SRGB || interpolation > ColorGradient.INTERPOLATION_OKLAB) {
+            throw new IllegalArgumentException("unknown interpolation: " + interpolation);
+        }
+        if (mInterpolation == interpolation) {
+            return;
+        }
+        mInterpolation = interpolation;
+        mGradient = null;
+        updateColors();
+    }
+
+    public int getInterpolation() {
+        return mInterpolation;
+    }
+
+    /**
+     * @param mode {@link #BAR_RENDER_AUTO} (default), {@link #BAR_RENDER_GRADIENT} or {@link #BAR_RENDER_TEXTURE}
+     */
+    public void setBarRenderMode(int mode) {
+        if (mode < BAR_RENDER_AUTO || mode > BAR_RENDER_TEXTURE) {
+            throw new IllegalArgumentException("unknown bar render mode: " + mode);
+        }
+        if (mBarRenderMode == mode) {
+            return;
+        }
+        mBarRenderMode = mode;
+        updateColorBarShader();
+        invalidate();
+    }
+
+    /**
+     * Replace the bar's shader after the seeds or the render mode changed, the bar layout stays as is.
+     */
+    private void updateColorBarShader() {
+        //before the first layout init() creates the shader
+        if (mColorRect == null) {
+            return;
+        }
+        mColorRectPaint.setShader(createColorBarShader());
+        invalidateBarLayer();
+    }
+
+    public int getBarRenderMode() {
+        return mBarRenderMode;
+    }
+
+    /**
+     * @return true if the bar is drawn from a texture, always the case for interpolations other than sRGB
+     */
+    public boolean isBarTextureRendering() {
+        if (mInterpolation != ColorGradient.INTERPOLATION_SRGB || mBarRenderMode == BAR_RENDER_TEXTURE) {
+            return true;
+        }
+        return mBarRenderMode == BAR_RENDER_AUTO && mColorSeeds.length > TEXTURE_SEED_THRESHOLD;
+    }
+
+    private void updateColors() {
         init();
         invalidate();
         if (mOnColorChangeLister != null) {
             mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
         }
+        publishColor();
+    }
+
+    /**
+     * @return a copy of the seeds
+     */
+    public int[] getColorSeeds() {
+        return mColorSeeds.clone();
+    }
+
+    /**
+     * Replace one seed, e.g. while dragging a stop in a palette editor. Only the positions between the neighbouring
+     * seeds are computed again, the listener is called if the current color changed.
+     *
+     * @param index between 0 and seed count - 1
+     * @param color
+     */
+    public void setColorSeed(int index, int color) {
+        if (index < 0 || index >= mColorSeeds.length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", seeds: " + mColorSeeds.length);
+        }
+        if (mColorSeeds[index] == color) {
+            return;
+        }
+        int oldColor = getColor();
+        ColorGradient gradient = getColorGradient().withSeed(index, color);
+        mColorSeeds = gradient.getSeeds();
+        mGradient = gradient;
+        if (mColorRect != null) {
+            updateColorBarSeed(index);
+            invalidateBarLayer();
+        }
+        if (mColors == null || mColorTablePending || mColorCount != gradient.getColorCount()) {
+            cacheColors();
+        } else {
+            int[] range = gradient.getSeedRange(index);
+            //drop a background build of the previous seeds
+            mColorTableGeneration++;
+            mColorIndexDirty = true;
+            mNearestIndexDirty = true;
+            mColorsGradient = gradient;
+            publishColorTable(mColors.update(gradient, range[0], range[1]));
+        }
+        invalidate();
+        if (getColor() != oldColor) {
+            if (mOnColorChangeLister != null) {
+                mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
+            }
+            publishColor();
+        }
+    }
+
+    /**
+     * Insert a seed before index, the segment layout changes so every color is computed again.
+     *
+     * @param index between 0 and seed count, seed count appends
+     * @param color
+     */
+    public void insertColorSeed(int index, int color) {
+        if (index < 0 || index > mColorSeeds.length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", seeds: " + mColorSeeds.length);
+        }
+        int[] seeds = new int[mColorSeeds.length + 1];
+        System.arraycopy(mColorSeeds, 0, seeds, 0, index);
+        seeds[index] = color;
+        System.arraycopy(mColorSeeds, index, seeds, index + 1, mColorSeeds.length - index);
+        replaceColorSeeds(seeds);
+    }
+
+    /**
+     * Remove a seed, the segment layout changes so every color is computed again.
+     *
+     * @param index between 0 and seed count - 1, the last seed can't be removed, a single seed fills the bar
+     */
+    public void removeColorSeed(int index) {
+        if (index < 0 || index >= mColorSeeds.length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", seeds: " + mColorSeeds.length);
+        }
+        if (mColorSeeds.length == 1) {
+            throw new IllegalStateException("the last seed can't be removed");
+        }
+        int[] seeds = new int[mColorSeeds.length - 1];
+        System.arraycopy(mColorSeeds, 0, seeds, 0, index);
+        System.arraycopy(mColorSeeds, index + 1, seeds, index, seeds.length - index);
+        replaceColorSeeds(seeds);
+    }
+
+    /**
+     * Like {@link #setColorSeeds(int[])} without laying the bar out again.
+     */
+    private void replaceColorSeeds(int[] seeds) {
+        mColorSeeds = seeds;
+        mGradient = null;
+        updateColorBarShader();
+        cacheColors();
+        invalidate();
+        if (mOnColorChangeLister != null) {
+            mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
+        }
+        publishColor();
+    }
+
+    /**
+     * Render the change of one seed into the bar's shader, only the texels next to it are filled again.
+     */
+    private void updateColorBarSeed(int index) {
+        if (!isBarTextureRendering() || mBarTexture == null || mBarTexture.getWidth() != mBarTextureColors.length) {
+            mColorRectPaint.setShader(createColorBarShader());
+            return;
+        }
+        int width = mBarTextureColors.length;
+        ColorGradient strip = new ColorGradient(mColorSeeds, width - 1, mInterpolation);
+        int[] range = strip.getSeedRange(index);
+        strip.fill(mBarTextureColors, range[0], range[1]);
+        mBarTexture.setPixels(mBarTextureColors, range[0], width, range[0], 0, range[1] - range[0], 1);
     }
 
     /**
      * @param color
      * @return the color's position in the bar, if not in the bar ,return -1;
+     * If the color appears more than once, the lowest position is returned.
      */
     public int getColorIndexPosition(int color) {
-        return mColors.indexOf(Color.argb(255, Color.red(color), Color.green(color), Color.blue(color)));
+        return indexOfColor(Color.argb(255, Color.red(color), Color.green(color), Color.blue(color)));
+    }
+
+    private int indexOfColor(int color) {
+        if (mColorCount == 0) {
+            return -1;
+        }
+        if (mColorIndexDirty) {
+            mColorIndex.build(mColors);
+            mColorIndexDirty = false;
+        }
+        return mColorIndex.get(color);
     }
 
+    /**
+     * Find the position whose color is nearest to the given color in weighted sRGB distance, alpha is ignored.
+     * The lookup uses a grid index built from the cached colors on first use, see {@link ColorNearestIndex}.
+     *
+     * @param color
+     * @param match receives the position and the distance, 0 for an exact match and up to 255
+     * @return false if the colors are not cached yet
+     */
+    public boolean findNearestColor(int color, ColorMatch match) {
+        if (mColorCount == 0) {
+            return false;
+        }
+        int exact = getColorIndexPosition(color);
+        if (exact != -1) {
+            match.position = exact;
+            match.distance = 0;
+            return true;
+        }
+        if (mNearestIndexDirty) {
+            mNearestIndex.build(mColors);
+            mNearestIndexDirty = false;
+        }
+        match.position = mNearestIndex.find(color);
+        match.distance = mNearestIndex.getMatchDistance();
+        return true;
+    }
+
+    /**
+     * @return a read-only view of the cached colors, values are boxed on access.
+     * Use {@link #copyColors(int[])} to read them without boxing.
+     */
     public List<Integer> getColors() {
-        return mColors;
+        return mColorsView;
+    }
+
+    /**
+     * Copy the cached colors into dest, at most dest.length colors are copied.
+     *
+     * @param dest
+     * @return the number of colors copied
+     */
+    public int copyColors(int[] dest) {
+        int count = Math.min(dest.length, mColorCount);
+        if (count > 0) {
+            mColors.copyTo(dest, count);
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of cached colors, maxPosition + 1 once the view is initialized.
+     */
+    public int getColorCount() {
+        return mColorCount;
     }
 
     public boolean isShowAlphaBar() {
@@ -612,6 +1623,7 @@ public class ColorSeekBar extends View {
         if (mOnColorChangeLister != null) {
             mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
         }
+        publishColor();
     }
 
     /**
@@ -619,6 +1631,7 @@ public class ColorSeekBar extends View {
      */
     public void setBarHeight(float dp) {
         mBarHeight = dp2px(dp);
+        invalidateBarLayer();
         refreshLayoutParams();
         invalidate();
     }
@@ -628,6 +1641,7 @@ public class ColorSeekBar extends View {
      */
     public void setBarHeightPx(int px) {
         mBarHeight = px;
+        invalidateBarLayer();
         refreshLayoutParams();
         invalidate();
     }
@@ -648,6 +1662,7 @@ public class ColorSeekBar extends View {
 
     public void setMaxPosition(int value) {
         this.mMaxPosition = value;
+        mGradient = null;
         invalidate();
         cacheColors();
     }
@@ -688,6 +1703,7 @@ public class ColorSeekBar extends View {
         if (mOnColorChangeLister != null) {
             mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, getColor());
         }
+        publishColor();
     }
 
     public void setOnInitDoneListener(OnInitDoneListener listener) {
@@ -700,14 +1716,31 @@ public class ColorSeekBar extends View {
      * @paam color
      */
     public void setColor(int color) {
+        setColor(color, false);
+    }
+
+    /**
+     * Set color, if matchNearest is true and the color is not in the bar, the RGB-nearest position is used.
+     * See {@link #findNearestColor(int, ColorMatch)} to check the distance first.
+     *
+     * @param color
+     * @param matchNearest
+     */
+    public void setColor(int color, boolean matchNearest) {
         int withoutAlphaColor = Color.rgb(Color.red(color), Color.green(color), Color.blue(color));
 
         if (mInit) {
-            int value = mColors.indexOf(withoutAlphaColor);
+            int value;
+            if (matchNearest && findNearestColor(withoutAlphaColor, mColorMatch)) {
+                value = mColorMatch.position;
+            } else {
+                value = indexOfColor(withoutAlphaColor);
+            }
 //            mColorsToInvoke = color;
             setColorBarPosition(value);
         } else {
             mColorsToInvoke = color;
+            mColorsToInvokeNearest = matchNearest;
         }
 
     }
@@ -720,6 +1753,7 @@ public class ColorSeekBar extends View {
     public void setThumbHeight(float dp) {
         this.mThumbHeight = dp2px(dp);
         mThumbRadius = mThumbHeight / 2;
+        mAlphaShaderDirty = true;
         refreshLayoutParams();
         invalidate();
     }
@@ -732,6 +1766,7 @@ public class ColorSeekBar extends View {
     public void setThumbHeightPx(int px) {
         this.mThumbHeight = px;
         mThumbRadius = mThumbHeight / 2;
+        mAlphaShaderDirty = true;
         refreshLayoutParams();
         invalidate();
     }
@@ -756,7 +1791,331 @@ public class ColorSeekBar extends View {
         void done();
     }
 
+    /**
+     * Show a state, e.g. when a RecyclerView binds a row. If the bar already shows the state's config only the
+     * positions are applied, so binding rows that share a {@link ColorSeekBarConfig} costs almost nothing.
+     * Other configs are applied like one {@link #edit()}. Binding restores a state, it calls neither the
+     * {@link OnColorChangeListener} nor the color subscriptions.
+     *
+     * @param state
+     */
+    public void bind(ColorSeekBarState state) {
+        ColorSeekBarConfig config = state.getConfig();
+        //mGradient is replaced whenever seeds, maxPosition or interpolation change, so it tells if the config still holds
+        boolean bound = config == mBoundConfig && mGradient == mBoundGradient && mGradient != null
+                && mIsShowAlphaBar == config.isShowAlphaBar();
+        if (!bound) {
+            ColorGradient gradient = config.getGradient();
+            Editor editor = edit()
+                    .setMaxPosition(gradient.getMaxPosition())
+                    .setInterpolation(gradient.getInterpolation())
+                    .setShowAlphaBar(config.isShowAlphaBar());
+            if (!gradient.equals(getColorGradient())) {
+                editor.setColorSeeds(gradient.getSeeds());
+            }
+            editor.mGradientHint = gradient;
+            editor.apply(false);
+            mBoundConfig = config;
+            mBoundGradient = getColorGradient();
+        }
+
+        mColorsToInvoke = -1;
+        int colorBarPosition = Math.max(0, Math.min(state.getColorBarPosition(), mMaxPosition));
+        if (colorBarPosition != mColorBarPosition || state.getAlphaBarPosition() != mAlphaBarPosition) {
+            mColorBarPosition = colorBarPosition;
+            mAlphaBarPosition = state.getAlphaBarPosition();
+            setAlphaValue();
+            if (mColorRect != null) {
+                invalidateThumbs();
+            }
+        }
+    }
+
+    /**
+     * Drop transient state before the view is reused, e.g. from RecyclerView.Adapter#onViewRecycled: an ongoing drag,
+     * pending listener calls and a color set before layout. Config, color table and listeners are kept, so the next
+     * {@link #bind(ColorSeekBarState)} with the same config stays cheap.
+     */
+    public void resetForReuse() {
+        cancelColorChangeDispatch();
+        mPendingTouchTime = 0;
+        mColorsToInvoke = -1;
+        if (mMovingColorBar || mMovingAlphaBar) {
+            mMovingColorBar = false;
+            mMovingAlphaBar = false;
+            if (mColorRect != null) {
+                invalidateThumbs();
+            }
+        }
+    }
+
+    /**
+     * Change several properties with at most one layout pass, one init, one color table rebuild, one invalidate
+     * and one {@link OnColorChangeListener#onColorChangeListener(int, int, int)} call:
+     * <pre>
+     * colorSeekBar.edit()
+     *         .setMaxPosition(255)
+     *         .setShowAlphaBar(true)
+     *         .setThumbHeight(30)
+     *         .apply();
+     * </pre>
+     * Properties that end up with their current value cost nothing.
+     */
+    public Editor edit() {
+        return new Editor();
+    }
+
+    /**
+     * Collects property changes until {@link #apply()}, see {@link #edit()}. Not reusable after apply.
+     */
+    public final class Editor {
+        private int[] mPendingColorSeeds;
+        private Integer mPendingMaxPosition;
+        private Integer mPendingInterpolation;
+        private Integer mPendingBarRenderMode;
+        private Integer mPendingColorBarPosition;
+        private Integer mPendingAlphaBarPosition;
+        private Boolean mPendingShowAlphaBar;
+        private Integer mPendingBarHeight;
+        private Integer mPendingThumbHeight;
+        private Integer mPendingBarMargin;
+        private Integer mPendingColorBarStrokeColor;
+        /**
+         * The gradient of the edited seeds, maxPosition and interpolation if the caller already has it.
+         */
+        private ColorGradient mGradientHint;
+
+        private Editor() {
+        }
+
+        public Editor setColorSeeds(int[] colors) {
+            mPendingColorSeeds = colors;
+            return this;
+        }
+
+        public Editor setColorSeeds(@ArrayRes int resId) {
+            mPendingColorSeeds = getColorsById(resId);
+            return this;
+        }
+
+        public Editor setMaxPosition(int value) {
+            mPendingMaxPosition = value;
+            return this;
+        }
+
+        /**
+         * @see ColorSeekBar#setInterpolation(int)
+         */
+        public Editor setInterpolation(int interpolation) {
+            if (interpolation < ColorGradient.INTERPOLATION_SRGB || interpolation > ColorGradient.INTERPOLATION_OKLAB) {
+                throw new IllegalArgumentException("unknown interpolation: " + interpolation);
+            }
+            mPendingInterpolation = interpolation;
+            return this;
+        }
+
+        /**
+         * @see ColorSeekBar#setBarRenderMode(int)
+         */
+        public Editor setBarRenderMode(int mode) {
+            if (mode < BAR_RENDER_AUTO || mode > BAR_RENDER_TEXTURE) {
+                throw new IllegalArgumentException("unknown bar render mode: " + mode);
+            }
+            mPendingBarRenderMode = mode;
+            return this;
+        }
+
+        /**
+         * @param value clamped to 0-maxPosition once applied
+         */
+        public Editor setColorBarPosition(int value) {
+            mPendingColorBarPosition = value;
+            return this;
+        }
+
+        public Editor setAlphaBarPosition(int value) {
+            mPendingAlphaBarPosition = value;
+            return this;
+        }
+
+        public Editor setShowAlphaBar(boolean show) {
+            mPendingShowAlphaBar = show;
+            return this;
+        }
+
+        public Editor setBarHeight(float dp) {
+            mPendingBarHeight = dp2px(dp);
+            return this;
+        }
+
+        public Editor setBarHeightPx(int px) {
+            mPendingBarHeight = px;
+            return this;
+        }
+
+        public Editor setThumbHeight(float dp) {
+            mPendingThumbHeight = dp2px(dp);
+            return this;
+        }
+
+        public Editor setThumbHeightPx(int px) {
+            mPendingThumbHeight = px;
+            return this;
+        }
+
+        public Editor setBarMargin(float dp) {
+            mPendingBarMargin = dp2px(dp);
+            return this;
+        }
+
+        public Editor setBarMarginPx(int px) {
+            mPendingBarMargin = px;
+            return this;
+        }
+
+        public Editor setColorBarStrokeColor(int color) {
+            mPendingColorBarStrokeColor = color;
+            return this;
+        }
+
+        /**
+         * Apply every change at once, on the UI thread.
+         */
+        public void apply() {
+            apply(true);
+        }
+
+        private void apply(boolean notify) {
+            int oldColorBarPosition = mColorBarPosition;
+            int oldAlphaBarPosition = mAlphaBarPosition;
+            int oldColor = getColor();
+            boolean colorsChanged = false;
+            boolean shaderChanged = false;
+            boolean layoutChanged = false;
+            boolean drawChanged = false;
+
+            if (mPendingColorSeeds != null && !Arrays.equals(mPendingColorSeeds, mColorSeeds)) {
+                mColorSeeds = mPendingColorSeeds;
+                colorsChanged = true;
+                shaderChanged = true;
+            }
+            if (mPendingInterpolation != null && mPendingInterpolation != mInterpolation) {
+                mInterpolation = mPendingInterpolation;
+                colorsChanged = true;
+                shaderChanged = true;
+            }
+            if (mPendingMaxPosition != null && mPendingMaxPosition != mMaxPosition) {
+                mMaxPosition = mPendingMaxPosition;
+                colorsChanged = true;
+                drawChanged = true;
+            }
+            if (mPendingBarRenderMode != null && mPendingBarRenderMode != mBarRenderMode) {
+                mBarRenderMode = mPendingBarRenderMode;
+                shaderChanged = true;
+            }
+            if (mPendingColorBarPosition != null) {
+                int position = Math.max(0, Math.min(mPendingColorBarPosition, mMaxPosition));
+                if (position != mColorBarPosition) {
+                    mColorBarPosition = position;
+                    drawChanged = true;
+                }
+            }
+            if (mPendingAlphaBarPosition != null && mPendingAlphaBarPosition != mAlphaBarPosition) {
+                mAlphaBarPosition = mPendingAlphaBarPosition;
+                setAlphaValue();
+                drawChanged = true;
+            }
+            if (mPendingShowAlphaBar != null && mPendingShowAlphaBar != mIsShowAlphaBar) {
+                mIsShowAlphaBar = mPendingShowAlphaBar;
+                layoutChanged = true;
+            }
+            if (mPendingBarHeight != null && mPendingBarHeight != mBarHeight) {
+                mBarHeight = mPendingBarHeight;
+                layoutChanged = true;
+            }
+            if (mPendingThumbHeight != null && mPendingThumbHeight != mThumbHeight) {
+                mThumbHeight = mPendingThumbHeight;
+                mThumbRadius = mThumbHeight / 2;
+                mAlphaShaderDirty = true;
+                layoutChanged = true;
+            }
+            if (mPendingBarMargin != null && mPendingBarMargin != mBarMargin) {
+                mBarMargin = mPendingBarMargin;
+                layoutChanged = true;
+            }
+            if (mPendingColorBarStrokeColor != null && mPendingColorBarStrokeColor != colorBarStrokePaint.getColor()) {
+                colorBarStrokePaint.setColor(mPendingColorBarStrokeColor);
+                invalidateBarLayer();
+                drawChanged = true;
+            }
+
+            if (colorsChanged) {
+                mGradient = mGradientHint;
+                //the table is needed by getColor() right away, the init after the layout finds it up to date
+                cacheColors();
+            }
+            if (layoutChanged) {
+                //one init after the layout pass, by onSizeChanged() or onLayout()
+                invalidateBarLayer();
+                mInitPending = true;
+                requestLayout();
+            } else if (shaderChanged) {
+                updateColorBarShader();
+            }
+            if (!colorsChanged && !shaderChanged && !layoutChanged && !drawChanged) {
+                return;
+            }
+            invalidate();
+
+            int color = getColor();
+            if (notify && (color != oldColor || mColorBarPosition != oldColorBarPosition
+                    || mAlphaBarPosition != oldAlphaBarPosition)) {
+                if (mOnColorChangeLister != null) {
+                    mOnColorChangeLister.onColorChangeListener(mColorBarPosition, mAlphaBarPosition, color);
+                }
+                publishColor();
+            }
+        }
+    }
+
+    /**
+     * Result of {@link #findNearestColor(int, ColorMatch)}, can be reused between lookups.
+     */
+    public static class ColorMatch {
+        private int position = -1;
+        private float distance = Float.NaN;
+
+        /**
+         * @return the position nearest in weighted sRGB distance
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * @return weighted RGB distance to the requested color, 0 for an exact match and up to 255
+         */
+        public float getDistance() {
+            return distance;
+        }
+    }
+
     public int getColorBarPosition() {
         return mColorBarPosition;
     }
+
+    private class ColorsView extends AbstractList<Integer> {
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= mColorCount) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + mColorCount);
+            }
+            return mColors.colorAt(index);
+        }
+
+        @Override
+        public int size() {
+            return mColorCount;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.rtugeek.android.colorseekbar;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+/**
+ * Immutable color configuration of a ColorSeekBar, shared by every row of a list that shows the same palette.
+ * See {@link ColorSeekBar#bind(ColorSeekBarState)}.
+ */
+public final class ColorSeekBarConfig {
+    private final ColorGradient mGradient;
+    private final boolean mShowAlphaBar;
+    private final int mHashCode;
+
+    /**
+     * @param colorSeeds  copied
+     * @param maxPosition
+     */
+    public ColorSeekBarConfig(int[] colorSeeds, int maxPosition) {
+        this(colorSeeds, maxPosition, ColorGradient.INTERPOLATION_SRGB, false);
+    }
+
+    /**
+     * @param colorSeeds    copied
+     * @param maxPosition
+     * @param interpolation see {@link ColorSeekBar#setInterpolation(int)}
+     * @param showAlphaBar
+     */
+    public ColorSeekBarConfig(int[] colorSeeds, int maxPosition, int interpolation, boolean showAlphaBar) {
+        mGradient = new ColorGradient(colorSeeds, maxPosition, interpolation);
+        mShowAlphaBar = showAlphaBar;
+        mHashCode = 31 * mGradient.hashCode() + (showAlphaBar ? 1 : 0);
+    }
+
+    /**
+     * @return seeds, maxPosition and interpolation
+     */
+    public ColorGradient getGradient() {
+        return mGradient;
+    }
+
+    public boolean isShowAlphaBar() {
+        return mShowAlphaBar;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ColorSeekBarConfig)) {
+            return false;
+        }
+        ColorSeekBarConfig other = (ColorSeekBarConfig) o;
+        return mHashCode == other.mHashCode && mShowAlphaBar == other.mShowAlphaBar && mGradient.equals(other.mGradient);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "ColorSeekBarConfig{gradient=" + mGradient + ", showAlphaBar=" + mShowAlphaBar + "}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+
+/**
+ * A bar of a {@link ColorSeekBarState} as a Drawable, e.g. for list rows, compound drawables or backgrounds that only
+ * show a palette. Drawables of one screen should share a {@link ColorBarRenderer}.
+ */
+public class ColorSeekBarDrawable extends Drawable {
+    private final ColorBarRenderer mRenderer;
+    private ColorSeekBarState mBarState;
+    private int mAlpha = 255;
+
+    public ColorSeekBarDrawable(ColorBarRenderer renderer, ColorSeekBarState barState) {
+        mRenderer = renderer;
+        mBarState = barState;
+    }
+
+    public ColorBarRenderer getRenderer() {
+        return mRenderer;
+    }
+
+    /**
+     * Named apart from {@link Drawable#setState(int[])}, which is the view state. Hosts re-read
+     * {@link #getIntrinsicHeight()} when the alpha bar is toggled.
+     */
+    public void setBarState(ColorSeekBarState barState) {
+        if (barState.equals(mBarState)) {
+            return;
+        }
+        mBarState = barState;
+        invalidateSelf();
+    }
+
+    public ColorSeekBarState getBarState() {
+        return mBarState;
+    }
+
+    /**
+     * @return the picked color, see {@link ColorBarRenderer#getColor(ColorSeekBarState)}
+     */
+    public int getColor() {
+        return ColorBarRenderer.getColor(mBarState);
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (mAlpha == 0) {
+            return;
+        }
+        if (mAlpha == 255) {
+            mRenderer.draw(canvas, getBounds(), mBarState);
+            return;
+        }
+        int saveCount = canvas.saveLayerAlpha(getBounds().left, getBounds().top, getBounds().right, getBounds().bottom, mAlpha);
+        mRenderer.draw(canvas, getBounds(), mBarState);
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mRenderer.getHeight(mBarState.getConfig());
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (mAlpha != alpha) {
+            mAlpha = alpha;
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    /**
+     * Not supported, the bar shows exact colors.
+     */
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+}
@@ -0,0 +1,242 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Timings and counters of one ColorSeekBar, recorded on the UI thread once {@link ColorSeekBar#setMetricsEnabled(boolean)}
+ * is on. Read them from the UI thread, recording never allocates.
+ * <p>
+ * Systrace sections ("ColorSeekBar#onDraw", "#init", "#cacheColors", "#onTouchEvent", "#dispatch") are independent from
+ * the metrics and enabled for every bar with {@link #setTraceEnabled(boolean)}.
+ */
+public final class ColorSeekBarMetrics {
+    static final String SECTION_DRAW = "ColorSeekBar#onDraw";
+    static final String SECTION_INIT = "ColorSeekBar#init";
+    static final String SECTION_CACHE_COLORS = "ColorSeekBar#cacheColors";
+    static final String SECTION_TOUCH = "ColorSeekBar#onTouchEvent";
+    static final String SECTION_DISPATCH = "ColorSeekBar#dispatch";
+
+    private static boolean sTraceEnabled;
+
+    private final Histogram mDrawTimes = new Histogram();
+    private final Histogram mTouchLatencies = new Histogram();
+    private final Histogram mDispatchTimes = new Histogram();
+    private final Histogram mInitTimes = new Histogram();
+    private final Histogram mCacheColorsTimes = new Histogram();
+    private long mInvalidateCount;
+    private long mPartialInvalidateCount;
+    private long mTableBytes;
+
+    ColorSeekBarMetrics() {
+    }
+
+    /**
+     * Add android.os.Trace sections around drawing, layout, color table builds, touch handling and listener dispatch.
+     * Off by default, a disabled section costs one static field read. Needs API 18.
+     */
+    public static void setTraceEnabled(boolean enabled) {
+        sTraceEnabled = enabled;
+    }
+
+    public static boolean isTraceEnabled() {
+        return sTraceEnabled;
+    }
+
+    /**
+     * @return true if a section was started, pass it to {@link #endSection(boolean)}
+     */
+    static boolean beginSection(String name) {
+        if (!sTraceEnabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return false;
+        }
+        Trace.beginSection(name);
+        return true;
+    }
+
+    static void endSection(boolean started) {
+        if (started) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * @return onDraw durations
+     */
+    public Histogram getDrawTimes() {
+        return mDrawTimes;
+    }
+
+    /**
+     * @return time from a touch event to the {@link ColorSeekBar.OnColorChangeListener} call it caused,
+     * millisecond resolution, conflated dispatch included
+     */
+    public Histogram getTouchLatencies() {
+        return mTouchLatencies;
+    }
+
+    /**
+     * @return time spent in {@link ColorSeekBar.OnColorChangeListener} callbacks
+     */
+    public Histogram getDispatchTimes() {
+        return mDispatchTimes;
+    }
+
+    /**
+     * @return bar layout and paint rebuilds, e.g. on size or seed changes
+     */
+    public Histogram getInitTimes() {
+        return mInitTimes;
+    }
+
+    /**
+     * @return color table rebuilds
+     */
+    public Histogram getCacheColorsTimes() {
+        return mCacheColorsTimes;
+    }
+
+    /**
+     * @return calls to invalidate() of the whole view
+     */
+    public long getInvalidateCount() {
+        return mInvalidateCount;
+    }
+
+    /**
+     * @return calls to invalidate(Rect) of the thumbs only
+     */
+    public long getPartialInvalidateCount() {
+        return mPartialInvalidateCount;
+    }
+
+    /**
+     * @return bytes of the color table in use after the last rebuild, tables shared between bars are counted by each
+     */
+    public long getTableBytes() {
+        return mTableBytes;
+    }
+
+    public void reset() {
+        mDrawTimes.reset();
+        mTouchLatencies.reset();
+        mDispatchTimes.reset();
+        mInitTimes.reset();
+        mCacheColorsTimes.reset();
+        mInvalidateCount = 0;
+        mPartialInvalidateCount = 0;
+    }
+
+    void recordInvalidate(boolean partial) {
+        if (partial) {
+            mPartialInvalidateCount++;
+        } else {
+            mInvalidateCount++;
+        }
+    }
+
+    void recordTableBytes(long bytes) {
+        mTableBytes = bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ColorSeekBarMetrics{draw=" + mDrawTimes
+                + ", touchLatency=" + mTouchLatencies
+                + ", dispatch=" + mDispatchTimes
+                + ", init=" + mInitTimes
+                + ", cacheColors=" + mCacheColorsTimes
+                + ", invalidates=" + mInvalidateCount
+                + ", partialInvalidates=" + mPartialInvalidateCount
+                + ", tableBytes=" + mTableBytes + "}";
+    }
+
+    /**
+     * Durations in nanoseconds, bucket i counts durations in [2^i, 2^(i+1)) and bucket 0 includes 0.
+     */
+    public static final class Histogram {
+        public static final int BUCKET_COUNT = 40;
+
+        private final long[] mBuckets = new long[BUCKET_COUNT];
+        private long mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        Histogram() {
+        }
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            int bucket = 63 - Long.numberOfLeadingZeros(nanos | 1);
+            mBuckets[Math.min(bucket, BUCKET_COUNT - 1)]++;
+            mCount++;
+            mTotalNanos += nanos;
+            if (nanos > mMaxNanos) {
+                mMaxNanos = nanos;
+            }
+        }
+
+        public long getCount() {
+            return mCount;
+        }
+
+        public long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        public long getMaxNanos() {
+            return mMaxNanos;
+        }
+
+        public long getMeanNanos() {
+            return mCount == 0 ? 0 : mTotalNanos / mCount;
+        }
+
+        public long getBucketCount(int bucket) {
+            return mBuckets[bucket];
+        }
+
+        /**
+         * @return the exclusive upper bound of bucket, the last bucket is unbounded
+         */
+        public static long getBucketUpperBoundNanos(int bucket) {
+            return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << (bucket + 1);
+        }
+
+        /**
+         * @param percentile between 0-100
+         * @return an upper bound of the percentile, the bound of its bucket capped by the max
+         */
+        public long getPercentileNanos(double percentile) {
+            if (mCount == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100 * mCount);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += mBuckets[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(getBucketUpperBoundNanos(i), mMaxNanos);
+                }
+            }
+            return mMaxNanos;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mBuckets[i] = 0;
+            }
+            mCount = 0;
+            mTotalNanos = 0;
+            mMaxNanos = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + mCount + ", meanNs=" + getMeanNanos() + ", p90Ns=" + getPercentileNanos(90)
+                    + ", maxNs=" + mMaxNanos + "}";
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.rtugeek.android.colorseekbar;
+
+/**
+ * Immutable configuration plus value of a ColorSeekBar, e.g. one per item of a RecyclerView adapter.
+ * See {@link ColorSeekBar#bind(ColorSeekBarState)}.
+ */
+public final class ColorSeekBarState {
+    private final ColorSeekBarConfig mConfig;
+    private final int mColorBarPosition;
+    private final int mAlphaBarPosition;
+
+    /**
+     * @param config           share one instance between items with the same palette, binding is cheapest then
+     * @param colorBarPosition between 0-maxPosition, clamped when bound
+     * @param alphaBarPosition between 0-255
+     */
+    public ColorSeekBarState(ColorSeekBarConfig config, int colorBarPosition, int alphaBarPosition) {
+        if (config == null) {
+            throw new IllegalArgumentException("config must not be null");
+        }
+        mConfig = config;
+        mColorBarPosition = colorBarPosition;
+        mAlphaBarPosition = alphaBarPosition;
+    }
+
+    public ColorSeekBarConfig getConfig() {
+        return mConfig;
+    }
+
+    public int getColorBarPosition() {
+        return mColorBarPosition;
+    }
+
+    public int getAlphaBarPosition() {
+        return mAlphaBarPosition;
+    }
+
+    /**
+     * @return the same config with another color bar position, e.g. from {@link ColorSeekBar.OnColorChangeListener}
+     */
+    public ColorSeekBarState withColorBarPosition(int colorBarPosition) {
+        return new ColorSeekBarState(mConfig, colorBarPosition, mAlphaBarPosition);
+    }
+
+    public ColorSeekBarState withAlphaBarPosition(int alphaBarPosition) {
+        return new ColorSeekBarState(mConfig, mColorBarPosition, alphaBarPosition);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ColorSeekBarState)) {
+            return false;
+        }
+        ColorSeekBarState other = (ColorSeekBarState) o;
+        return mColorBarPosition == other.mColorBarPosition && mAlphaBarPosition == other.mAlphaBarPosition
+                && mConfig.equals(other.mConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * mConfig.hashCode() + mColorBarPosition) + mAlphaBarPosition;
+    }
+
+    @Override
+    public String toString() {
+        return "ColorSeekBarState{config=" + mConfig + ", colorBarPosition=" + mColorBarPosition
+                + ", alphaBarPosition=" + mAlphaBarPosition + "}";
+    }
+}
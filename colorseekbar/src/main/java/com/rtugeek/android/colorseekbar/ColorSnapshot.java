@@ -0,0 +1,47 @@
+package com.rtugeek.android.colorseekbar;
+
+/**
+ * Color and positions delivered to a {@link ColorSubscription}. The same instance is reused for every delivery
+ * of a subscription, copy the values if they are needed after {@link ColorSeekBar.OnColorSnapshotListener#onColorSnapshot(ColorSnapshot)} returns.
+ */
+public class ColorSnapshot {
+    private final ColorSubscription mSubscription;
+    int mSequence;
+    int mColorBarPosition;
+    int mAlphaBarPosition;
+    int mColor;
+
+    ColorSnapshot(ColorSubscription subscription) {
+        mSubscription = subscription;
+    }
+
+    /**
+     * @return between 0-maxValue
+     */
+    public int getColorBarPosition() {
+        return mColorBarPosition;
+    }
+
+    /**
+     * @return between 0-255
+     */
+    public int getAlphaBarPosition() {
+        return mAlphaBarPosition;
+    }
+
+    /**
+     * @return the color, with alpha value if showAlphaBar is true
+     */
+    public int getColor() {
+        return mColor;
+    }
+
+    /**
+     * Long running work should poll this and stop early, a newer snapshot will be delivered next.
+     *
+     * @return true if a newer color was published or the subscription was cancelled
+     */
+    public boolean isStale() {
+        return mSubscription.isCancelled() || mSubscription.getSequence() != mSequence;
+    }
+}
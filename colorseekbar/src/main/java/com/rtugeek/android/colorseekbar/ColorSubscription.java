@@ -0,0 +1,111 @@
+package com.rtugeek.android.colorseekbar;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers color changes of a {@link ColorSeekBar} to a listener on an executor. Only the latest color is kept:
+ * if the listener is still busy, intermediate colors are dropped.
+ * Publishing happens on the UI thread and neither allocates nor blocks, beyond what {@link Executor#execute(Runnable)} does.
+ */
+public class ColorSubscription {
+    private final ColorSeekBar mColorSeekBar;
+    private final Executor mExecutor;
+    private final ColorSeekBar.OnColorSnapshotListener mListener;
+
+    //seqlock, odd while the UI thread is writing
+    private volatile int mSequence;
+    private volatile int mColorBarPosition;
+    private volatile int mAlphaBarPosition;
+    private volatile int mColor;
+    private volatile boolean mCancelled;
+
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    //only touched by the running drain
+    private final ColorSnapshot mSnapshot = new ColorSnapshot(this);
+    private int mDeliveredSequence;
+
+    private final Runnable mDrain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    ColorSubscription(ColorSeekBar colorSeekBar, Executor executor, ColorSeekBar.OnColorSnapshotListener listener) {
+        mColorSeekBar = colorSeekBar;
+        mExecutor = executor;
+        mListener = listener;
+    }
+
+    /**
+     * Must be called from the UI thread.
+     */
+    void publish(int colorBarPosition, int alphaBarPosition, int color) {
+        if (mCancelled) {
+            return;
+        }
+        int sequence = mSequence;
+        mSequence = sequence + 1;
+        mColorBarPosition = colorBarPosition;
+        mAlphaBarPosition = alphaBarPosition;
+        mColor = color;
+        mSequence = sequence + 2;
+        if (mScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mDrain);
+            } catch (RuntimeException e) {
+                mScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            if (mCancelled) {
+                mScheduled.set(false);
+                return;
+            }
+            readSnapshot(mSnapshot);
+            if (mSnapshot.mSequence != mDeliveredSequence) {
+                mDeliveredSequence = mSnapshot.mSequence;
+                mListener.onColorSnapshot(mSnapshot);
+                continue;
+            }
+            mScheduled.set(false);
+            //a color published after the last read but before the flag was cleared would be lost without this check
+            if (mSequence == mDeliveredSequence || !mScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void readSnapshot(ColorSnapshot snapshot) {
+        int sequence;
+        do {
+            sequence = mSequence;
+            snapshot.mColorBarPosition = mColorBarPosition;
+            snapshot.mAlphaBarPosition = mAlphaBarPosition;
+            snapshot.mColor = mColor;
+        } while ((sequence & 1) != 0 || sequence != mSequence);
+        snapshot.mSequence = sequence;
+    }
+
+    int getSequence() {
+        return mSequence;
+    }
+
+    /**
+     * Stop deliveries, a delivery that is already running completes and sees {@link ColorSnapshot#isStale()} as true.
+     * Can be called from any thread.
+     */
+    public void cancel() {
+        mCancelled = true;
+        mColorSeekBar.removeColorSubscription(this);
+    }
+
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+}
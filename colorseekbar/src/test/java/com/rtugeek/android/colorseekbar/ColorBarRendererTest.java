@@ -0,0 +1,91 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorBarRendererTest {
+    private static final ColorSeekBarConfig GRAYS = new ColorSeekBarConfig(new int[]{0xFF000000, 0xFFFFFFFF}, 255);
+    private static final ColorSeekBarConfig GRAYS_WITH_ALPHA = new ColorSeekBarConfig(new int[]{0xFF000000, 0xFFFFFFFF}, 255,
+            ColorGradient.INTERPOLATION_SRGB, true);
+
+    //thumbs of 20px, bars from x=110 to x=365 so one pixel is one color position, alpha bar row at y=94
+    private final Rect mBounds = new Rect(100, 50, 375, 100);
+    private ColorBarRenderer mRenderer;
+
+    @Before
+    public void setUp() {
+        mRenderer = new ColorBarRenderer(RuntimeEnvironment.application);
+        mRenderer.setBarHeight(4);
+        mRenderer.setThumbHeight(20);
+        mRenderer.setBarMargin(10);
+    }
+
+    @Test
+    public void hitTest_findsBarRows() {
+        assertEquals(ColorBarRenderer.HIT_COLOR_BAR, mRenderer.hitTest(mBounds, GRAYS_WITH_ALPHA, 200, 60));
+        assertEquals(ColorBarRenderer.HIT_ALPHA_BAR, mRenderer.hitTest(mBounds, GRAYS_WITH_ALPHA, 200, 94));
+        assertEquals(ColorBarRenderer.HIT_NONE, mRenderer.hitTest(mBounds, GRAYS, 200, 94));
+        assertEquals(ColorBarRenderer.HIT_NONE, mRenderer.hitTest(mBounds, GRAYS_WITH_ALPHA, 200, 75));
+        assertEquals(ColorBarRenderer.HIT_NONE, mRenderer.hitTest(mBounds, GRAYS_WITH_ALPHA, 90, 60));
+    }
+
+    @Test
+    public void dragTo_mapsAndClampsPositions() {
+        ColorSeekBarState state = new ColorSeekBarState(GRAYS_WITH_ALPHA, 0, 0);
+
+        assertEquals(100, mRenderer.dragTo(mBounds, state, ColorBarRenderer.HIT_COLOR_BAR, 210).getColorBarPosition());
+        assertEquals(255, mRenderer.dragTo(mBounds, state, ColorBarRenderer.HIT_COLOR_BAR, 500).getColorBarPosition());
+        assertEquals(255, mRenderer.dragTo(mBounds, state, ColorBarRenderer.HIT_ALPHA_BAR, 365).getAlphaBarPosition());
+        assertSame(state, mRenderer.dragTo(mBounds, state, ColorBarRenderer.HIT_COLOR_BAR, 0));
+        assertSame(state, mRenderer.dragTo(mBounds, state, ColorBarRenderer.HIT_NONE, 200));
+    }
+
+    @Test
+    public void getColor_appliesAlphaOnlyWithAlphaBar() {
+        assertEquals(0xFF646464, ColorBarRenderer.getColor(new ColorSeekBarState(GRAYS, 100, 55)));
+        assertEquals(0xC8646464, ColorBarRenderer.getColor(new ColorSeekBarState(GRAYS_WITH_ALPHA, 100, 55)));
+    }
+
+    @Test
+    public void draw_manyBarsDoesNotAllocate() {
+        Canvas canvas = new ColorSeekBarDrawTest.NoOpCanvas();
+        ColorSeekBarDrawable[] drawables = new ColorSeekBarDrawable[50];
+        for (int i = 0; i < drawables.length; i++) {
+            ColorSeekBarConfig config = i % 2 == 0 ? GRAYS : GRAYS_WITH_ALPHA;
+            drawables[i] = new ColorSeekBarDrawable(mRenderer, new ColorSeekBarState(config, i, i));
+            //every config at two widths, each keeps its own shader
+            int width = i % 4 < 2 ? 480 : 320;
+            drawables[i].setBounds(0, i * 50, width, i * 50 + drawables[i].getIntrinsicHeight());
+        }
+        for (int frame = 0; frame < 200; frame++) {
+            for (ColorSeekBarDrawable drawable : drawables) {
+                drawable.draw(canvas);
+            }
+        }
+
+        long allocated = ColorSeekBarDrawTest.allocatedBytes();
+        for (int frame = 0; frame < 2000; frame++) {
+            for (ColorSeekBarDrawable drawable : drawables) {
+                drawable.draw(canvas);
+            }
+        }
+        allocated = ColorSeekBarDrawTest.allocatedBytes() - allocated;
+
+        //below one byte per bar drawn is JIT or runtime noise
+        assertEquals("bytes allocated per bar", 0, allocated / (2000 * drawables.length));
+    }
+}
@@ -0,0 +1,104 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorSeekBarBindTest {
+    private static final ColorSeekBarConfig GRAYS = new ColorSeekBarConfig(new int[]{0xFF000000, 0xFFFFFFFF}, 255);
+    private static final ColorSeekBarConfig HUES = new ColorSeekBarConfig(new int[]{0xFFFF0000, 0xFF00FF00, 0xFF0000FF}, 100,
+            ColorGradient.INTERPOLATION_OKLAB, true);
+
+    private ColorSeekBar mColorSeekBar;
+    private int mCallbackCount;
+
+    @Before
+    public void setUp() {
+        mColorSeekBar = new ColorSeekBar(RuntimeEnvironment.application);
+        ColorSeekBarTestViews.layout(mColorSeekBar);
+        mColorSeekBar.setOnColorChangeListener(new ColorSeekBar.OnColorChangeListener() {
+            @Override
+            public void onColorChangeListener(int colorBarPosition, int alphaBarPosition, int color) {
+                mCallbackCount++;
+            }
+
+            @Override
+            public void onColorChangeActionUp(int colorBarPosition, int alphaBarPosition, int color) {
+            }
+        });
+    }
+
+    @Test
+    public void bind_appliesConfigAndPositions() {
+        mColorSeekBar.bind(new ColorSeekBarState(HUES, 150, 40));
+
+        assertArrayEquals(new int[]{0xFFFF0000, 0xFF00FF00, 0xFF0000FF}, mColorSeekBar.getColorSeeds());
+        assertEquals(100, mColorSeekBar.getMaxValue());
+        assertEquals(ColorGradient.INTERPOLATION_OKLAB, mColorSeekBar.getInterpolation());
+        assertEquals(100, mColorSeekBar.getColorBarPosition());
+        assertEquals(40, mColorSeekBar.getAlphaBarPosition());
+        assertEquals(HUES.getGradient().colorAt(50), (int) mColorSeekBar.getColors().get(50));
+        assertEquals(0, mCallbackCount);
+    }
+
+    @Test
+    public void bind_sameConfigOnlyMovesThumbs() {
+        mColorSeekBar.bind(new ColorSeekBarState(GRAYS, 10, 0));
+        mColorSeekBar.setMetricsEnabled(true);
+        mColorSeekBar.bind(new ColorSeekBarState(GRAYS, 200, 0));
+        mColorSeekBar.bind(new ColorSeekBarState(GRAYS, 200, 0));
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertEquals(0, metrics.getCacheColorsTimes().getCount());
+        assertEquals(0, metrics.getInitTimes().getCount());
+        assertEquals(0, metrics.getInvalidateCount());
+        assertEquals(1, metrics.getPartialInvalidateCount());
+        assertEquals(200, mColorSeekBar.getColorBarPosition());
+        assertEquals(0xFFC8C8C8, mColorSeekBar.getColor(false));
+    }
+
+    @Test
+    public void bind_equalConfigIsAdoptedWithoutRebuild() {
+        mColorSeekBar.bind(new ColorSeekBarState(GRAYS, 10, 0));
+        mColorSeekBar.setMetricsEnabled(true);
+        mColorSeekBar.bind(new ColorSeekBarState(new ColorSeekBarConfig(new int[]{0xFF000000, 0xFFFFFFFF}, 255), 20, 0));
+        assertEquals(0, mColorSeekBar.getMetrics().getCacheColorsTimes().getCount());
+        assertEquals(0, mColorSeekBar.getMetrics().getInvalidateCount());
+    }
+
+    @Test
+    public void bind_reappliesConfigChangedBySetters() {
+        mColorSeekBar.bind(new ColorSeekBarState(GRAYS, 10, 0));
+        mColorSeekBar.setMaxPosition(50);
+        mColorSeekBar.bind(new ColorSeekBarState(GRAYS, 10, 0));
+        assertEquals(255, mColorSeekBar.getMaxValue());
+        assertEquals(256, mColorSeekBar.getColorCount());
+    }
+
+    @Test
+    public void resetForReuse_endsDrag() {
+        long time = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, 50, 9, 0);
+        assertEquals(true, mColorSeekBar.onTouchEvent(down));
+        down.recycle();
+
+        mColorSeekBar.resetForReuse();
+        MotionEvent move = MotionEvent.obtain(time, time, MotionEvent.ACTION_MOVE, 150, 9, 0);
+        assertFalse(mColorSeekBar.onTouchEvent(move));
+        move.recycle();
+    }
+}
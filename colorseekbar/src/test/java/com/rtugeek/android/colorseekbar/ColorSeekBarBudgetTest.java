@@ -0,0 +1,268 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Budgets of scripted drags over a laid out bar: bytes allocated per touch event and per frame, invalidations, layout
+ * requests and listener calls per gesture. A change that exceeds a budget fails the unit tests, raise a budget only
+ * on purpose.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorSeekBarBudgetTest {
+    private static final long BYTES_PER_TOUCH_EVENT = 0;
+    private static final long BYTES_PER_FRAME = 0;
+    private static final int FULL_INVALIDATES_PER_GESTURE = 0;
+    private static final int LAYOUT_REQUESTS_PER_GESTURE = 0;
+
+    //bar rows at mdpi, 16dp thumbs, 2dp bars and a 5dp margin
+    private static final float COLOR_BAR_Y = 9;
+    private static final float ALPHA_BAR_Y = 32;
+    //one drag covers the bar back and forth, 5px per event moves at least one of the 100 positions
+    private static final int MOVES = 160;
+    private static final int WARM_UP_GESTURES = 50;
+    private static final int GESTURES = 100;
+    //the runtime now and then allocates a few bytes on the test thread, e.g. in a deoptimized arithmetic method
+    private static final int REPEATED_GESTURES = 3;
+
+    private LayoutCountingFrameLayout mParent;
+    private ColorSeekBar mColorSeekBar;
+    private final Canvas mCanvas = new ColorSeekBarDrawTest.NoOpCanvas();
+    private MotionEvent mEvent;
+    private int mColorChangeCount;
+    private int mActionUpCount;
+
+    @Before
+    public void setUp() {
+        mParent = new LayoutCountingFrameLayout(RuntimeEnvironment.application);
+        mColorSeekBar = new ColorSeekBar(RuntimeEnvironment.application);
+        ColorSeekBarTestViews.layout(mParent, mColorSeekBar);
+        mColorSeekBar.setShowAlphaBar(true);
+        layout();
+        mColorSeekBar.setMetricsEnabled(true);
+        mColorSeekBar.setOnColorChangeListener(new ColorSeekBar.OnColorChangeListener() {
+            @Override
+            public void onColorChangeListener(int colorBarPosition, int alphaBarPosition, int color) {
+                mColorChangeCount++;
+            }
+
+            @Override
+            public void onColorChangeActionUp(int colorBarPosition, int alphaBarPosition, int color) {
+                mActionUpCount++;
+            }
+        });
+        //one event reused for the whole script, MotionEvent.obtain() would be counted as the bar's allocation
+        long time = SystemClock.uptimeMillis();
+        mEvent = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, 0, 0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        mEvent.recycle();
+    }
+
+    @Test
+    public void colorDrag_touchEventsDoNotAllocate() {
+        assertAllocation("touch event", COLOR_BAR_Y, false, BYTES_PER_TOUCH_EVENT);
+    }
+
+    @Test
+    public void alphaDrag_touchEventsDoNotAllocate() {
+        assertAllocation("touch event", ALPHA_BAR_Y, false, BYTES_PER_TOUCH_EVENT);
+    }
+
+    @Test
+    public void alphaDrag_framesDoNotAllocate() {
+        //a frame is one move and one draw
+        assertAllocation("frame", ALPHA_BAR_Y, true, BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void colorDrag_framesWithAlphaBarDoNotAllocate() {
+        assertAllocation("frame", COLOR_BAR_Y, true, BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void colorDrag_framesWithoutAlphaBarDoNotAllocate() {
+        mColorSeekBar.setShowAlphaBar(false);
+        layout();
+        assertAllocation("frame", COLOR_BAR_Y, true, BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void colorDrag_staysWithinInvalidateLayoutAndListenerBudgets() {
+        int changes = drag(COLOR_BAR_Y, true);
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertTrue("position changes: " + changes, changes > MOVES / 2);
+        assertEquals(changes, mColorChangeCount);
+        assertEquals(1, mActionUpCount);
+        //only the thumbs are redrawn, once per change
+        assertTrue("full invalidates: " + metrics.getInvalidateCount(), metrics.getInvalidateCount() <= FULL_INVALIDATES_PER_GESTURE);
+        assertTrue("partial invalidates: " + metrics.getPartialInvalidateCount(), metrics.getPartialInvalidateCount() <= changes);
+        assertTrue("layout requests: " + mParent.mLayoutRequests, mParent.mLayoutRequests <= LAYOUT_REQUESTS_PER_GESTURE);
+    }
+
+    @Test
+    public void alphaDrag_staysWithinInvalidateLayoutAndListenerBudgets() {
+        int changes = drag(ALPHA_BAR_Y, true);
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertTrue("position changes: " + changes, changes > MOVES / 2);
+        assertEquals(changes, mColorChangeCount);
+        assertEquals(1, mActionUpCount);
+        assertTrue("full invalidates: " + metrics.getInvalidateCount(), metrics.getInvalidateCount() <= FULL_INVALIDATES_PER_GESTURE);
+        assertTrue("partial invalidates: " + metrics.getPartialInvalidateCount(), metrics.getPartialInvalidateCount() <= changes);
+        assertTrue("layout requests: " + mParent.mLayoutRequests, mParent.mLayoutRequests <= LAYOUT_REQUESTS_PER_GESTURE);
+    }
+
+    @Test
+    public void jitter_costsNothing() {
+        startGesture(COLOR_BAR_Y, 200);
+        touch(MotionEvent.ACTION_MOVE, 200, COLOR_BAR_Y);
+        mColorChangeCount = 0;
+        mColorSeekBar.resetMetrics();
+        //sub-position moves, e.g. a resting finger
+        for (int i = 0; i < MOVES; i++) {
+            touch(MotionEvent.ACTION_MOVE, 200 + (i % 2) * 0.5f, COLOR_BAR_Y);
+        }
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertEquals(0, mColorChangeCount);
+        assertEquals(0, metrics.getInvalidateCount());
+        assertEquals(0, metrics.getPartialInvalidateCount());
+    }
+
+    @Test
+    public void perFrameDispatch_deliversOncePerFrame() {
+        //frame callbacks need a window
+        Robolectric.setupActivity(Activity.class).setContentView(mParent);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        ShadowLooper.pauseMainLooper();
+        mColorSeekBar.setColorChangeDispatchMode(ColorSeekBar.DISPATCH_PER_FRAME);
+        startGesture(COLOR_BAR_Y, 20);
+        int changes = 0;
+        for (int i = 1; i <= MOVES; i++) {
+            int position = mColorSeekBar.getColorBarPosition();
+            touch(MotionEvent.ACTION_MOVE, 20 + i * 2.5f, COLOR_BAR_Y);
+            changes += mColorSeekBar.getColorBarPosition() != position ? 1 : 0;
+            //two events per frame
+            if (i % 2 == 0) {
+                ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+            }
+        }
+        touch(MotionEvent.ACTION_UP, 20 + MOVES * 2.5f, COLOR_BAR_Y);
+
+        assertTrue("position changes: " + changes, changes > MOVES / 4);
+        assertTrue("listener calls: " + mColorChangeCount, mColorChangeCount <= MOVES / 2);
+        assertTrue("listener calls: " + mColorChangeCount, mColorChangeCount >= changes / 2);
+        assertEquals(1, mActionUpCount);
+    }
+
+    /**
+     * Compares the exact bytes of every measured gesture with the budget, after warm-up gestures that may initialize
+     * things lazily. Dividing a total by the events would round up to a few hundred bytes per gesture away. A gesture
+     * over budget is repeated, a few times per test, and fails if it allocates again.
+     *
+     * @param draw draw a frame after every move
+     */
+    private void assertAllocation(String unit, float y, boolean draw, long bytesPerUnit) {
+        for (int i = 0; i < WARM_UP_GESTURES; i++) {
+            drag(y, draw);
+        }
+        long budget = bytesPerUnit * (draw ? MOVES : MOVES + 2);
+        int repeated = 0;
+        for (int i = 0; i < GESTURES; i++) {
+            long allocated = allocatedBytes(y, draw);
+            if (allocated > budget && repeated < REPEATED_GESTURES) {
+                repeated++;
+                allocated = allocatedBytes(y, draw);
+            }
+            assertTrue("bytes allocated in gesture " + i + ": " + allocated + ", budget " + budget + " at "
+                    + bytesPerUnit + " per " + unit + ", " + repeated + " gestures repeated", allocated <= budget);
+        }
+    }
+
+    private long allocatedBytes(float y, boolean draw) {
+        long allocated = ColorSeekBarDrawTest.allocatedBytes();
+        drag(y, draw);
+        return ColorSeekBarDrawTest.allocatedBytes() - allocated;
+    }
+
+    /**
+     * Down at the start of the bar, moves to the end and back, up.
+     *
+     * @param draw draw a frame after every move
+     * @return moves that changed the position
+     */
+    private int drag(float y, boolean draw) {
+        boolean alpha = y == ALPHA_BAR_Y;
+        startGesture(y, 20);
+        int changes = 0;
+        for (int i = 1; i <= MOVES; i++) {
+            int step = i <= MOVES / 2 ? i : MOVES - i;
+            int position = alpha ? mColorSeekBar.getAlphaBarPosition() : mColorSeekBar.getColorBarPosition();
+            touch(MotionEvent.ACTION_MOVE, 20 + step * 5, y);
+            if ((alpha ? mColorSeekBar.getAlphaBarPosition() : mColorSeekBar.getColorBarPosition()) != position) {
+                changes++;
+            }
+            if (draw) {
+                mColorSeekBar.onDraw(mCanvas);
+            }
+        }
+        touch(MotionEvent.ACTION_UP, 20, y);
+        return changes;
+    }
+
+    private void startGesture(float y, float x) {
+        touch(MotionEvent.ACTION_DOWN, x, y);
+    }
+
+    private void touch(int action, float x, float y) {
+        mEvent.setAction(action);
+        mEvent.setLocation(x, y);
+        mColorSeekBar.onTouchEvent(mEvent);
+    }
+
+    private void layout() {
+        ColorSeekBarTestViews.layout(mParent);
+        //the alpha bar's touch area is placed by the first draw
+        mColorSeekBar.onDraw(mCanvas);
+        mParent.mLayoutRequests = 0;
+    }
+
+    /**
+     * Counts layout requests from the bar, the first one after a layout pass reaches the parent.
+     */
+    private static class LayoutCountingFrameLayout extends FrameLayout {
+        int mLayoutRequests;
+
+        LayoutCountingFrameLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void requestLayout() {
+            mLayoutRequests++;
+            super.requestLayout();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.rtugeek.android.colorseekbar;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+import com.rtugeek.android.colorseekbar.core.ColorTableCache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorSeekBarColorTableTest {
+    private static final int[] SEEDS = new int[]{0xFF0000FF, 0xFF00FF00, 0xFFFF0000};
+
+    private ColorSeekBar mColorSeekBar;
+    private final List<Runnable> mBuilds = new ArrayList<>();
+    private int mReadyCount;
+
+    @Before
+    public void setUp() {
+        mColorSeekBar = new ColorSeekBar(RuntimeEnvironment.application);
+        ColorSeekBarTestViews.layout(mColorSeekBar);
+        //hold posted tasks until the test runs them
+        ShadowLooper.pauseMainLooper();
+        mColorSeekBar.setColorTableExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                mBuilds.add(command);
+            }
+        });
+        mColorSeekBar.setOnColorTableReadyListener(new ColorSeekBar.OnColorTableReadyListener() {
+            @Override
+            public void onColorTableReady(ColorSeekBar colorSeekBar) {
+                mReadyCount++;
+            }
+        });
+    }
+
+    @Test
+    public void setColorSeeds_colorsStayConsistentUntilTableIsLive() {
+        mColorSeekBar.setColorSeeds(SEEDS);
+        mColorSeekBar.setColorBarPosition(30);
+        int color = mColorSeekBar.getColor();
+        int[] colors = new int[mColorSeekBar.getColorCount()];
+        mColorSeekBar.copyColors(colors);
+
+        assertEquals(1, mBuilds.size());
+        mBuilds.get(0).run();
+        assertEquals(0, mReadyCount);
+        ShadowLooper.runUiThreadTasks();
+
+        assertEquals(1, mReadyCount);
+        assertEquals(color, mColorSeekBar.getColor());
+        for (int i = 0; i < colors.length; i++) {
+            assertEquals(colors[i], (int) mColorSeekBar.getColors().get(i));
+        }
+    }
+
+    @Test
+    public void setColorSeed_matchesFullRebuild() {
+        mColorSeekBar.setColorTableExecutor(null);
+        mColorSeekBar.setColorSeeds(SEEDS);
+        mColorSeekBar.setColorSeed(1, 0xFF123456);
+        mColorSeekBar.insertColorSeed(3, 0xFFFFFFFF);
+        mColorSeekBar.setColorSeed(3, 0xFF808080);
+        mColorSeekBar.removeColorSeed(0);
+
+        int[] seeds = new int[]{0xFF123456, 0xFFFF0000, 0xFF808080};
+        assertArrayEquals(seeds, mColorSeekBar.getColorSeeds());
+        ColorGradient expected = new ColorGradient(seeds, mColorSeekBar.getMaxValue());
+        for (int i = 0; i < expected.getColorCount(); i++) {
+            assertEquals(expected.colorAt(i), (int) mColorSeekBar.getColors().get(i));
+        }
+        assertEquals(5, mReadyCount);
+    }
+
+    @Test
+    public void removeColorSeed_leavesSingleSeedFillingTheBar() {
+        mColorSeekBar.setColorTableExecutor(null);
+        mColorSeekBar.setColorSeeds(new int[]{0xFF0000FF, 0xFFFF0000});
+        mColorSeekBar.removeColorSeed(0);
+
+        assertArrayEquals(new int[]{0xFFFF0000}, mColorSeekBar.getColorSeeds());
+        mColorSeekBar.setColorBarPosition(30);
+        assertEquals(0xFFFF0000, mColorSeekBar.getColor());
+    }
+
+    @Test
+    public void setColorSeed_waitsForPendingBuild() {
+        mColorSeekBar.setColorSeeds(SEEDS);
+        mColorSeekBar.setColorSeed(2, 0xFF000000);
+        assertEquals(2, mBuilds.size());
+        for (Runnable build : mBuilds) {
+            build.run();
+        }
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, mReadyCount);
+        assertEquals(new ColorGradient(new int[]{0xFF0000FF, 0xFF00FF00, 0xFF000000}, 100).colorAt(75),
+                (int) mColorSeekBar.getColors().get(75));
+    }
+
+    @Test
+    public void staleBuild_isDropped() {
+        mColorSeekBar.setColorSeeds(SEEDS);
+        mColorSeekBar.setMaxPosition(200);
+        assertEquals(2, mBuilds.size());
+
+        mBuilds.get(0).run();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(0, mReadyCount);
+
+        mBuilds.get(1).run();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, mReadyCount);
+        assertEquals(201, mColorSeekBar.getColorCount());
+    }
+
+    @Test
+    public void prewarm_withInterpolation_isUsedByBar() {
+        ColorSeekBar.prewarm(SEEDS, 100, ColorGradient.INTERPOLATION_OKLAB);
+        mColorSeekBar.setInterpolation(ColorGradient.INTERPOLATION_OKLAB);
+        mColorSeekBar.setColorSeeds(SEEDS);
+        int misses = ColorTableCache.getDefault().getMissCount();
+
+        mBuilds.get(mBuilds.size() - 1).run();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(misses, ColorTableCache.getDefault().getMissCount());
+        assertEquals(new ColorGradient(SEEDS, 100, ColorGradient.INTERPOLATION_OKLAB).colorAt(30),
+                (int) mColorSeekBar.getColors().get(30));
+    }
+
+    @Test
+    public void detach_dropsBuildUntilAttachedAgain() {
+        mColorSeekBar.setColorSeeds(SEEDS);
+        int builds = mBuilds.size();
+        mColorSeekBar.onDetachedFromWindow();
+        mBuilds.get(builds - 1).run();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(0, mReadyCount);
+
+        mColorSeekBar.onAttachedToWindow();
+        assertEquals(builds + 1, mBuilds.size());
+        mBuilds.get(builds).run();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, mReadyCount);
+        assertEquals(new ColorGradient(SEEDS, 100).colorAt(30), (int) mColorSeekBar.getColors().get(30));
+    }
+}
@@ -0,0 +1,218 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.widget.FrameLayout;
+
+import com.rtugeek.android.colorseekbar.core.ColorGradient;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorSeekBarDrawTest {
+    private static final int WARM_UP_FRAMES = 2000;
+    private static final int FRAMES = 10000;
+    //on the color bar at mdpi
+    private static final float COLOR_BAR_Y = 9;
+
+    private ColorSeekBar mColorSeekBar;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mColorSeekBar = new ColorSeekBar(RuntimeEnvironment.application);
+        FrameLayout parent = ColorSeekBarTestViews.layout(mColorSeekBar);
+        mColorSeekBar.setShowAlphaBar(true);
+        ColorSeekBarTestViews.layout(parent);
+        mCanvas = new NoOpCanvas();
+    }
+
+    @Test
+    public void onDraw_doesNotAllocateOnceLaidOut() {
+        mColorSeekBar.setAlphaBarPosition(100);
+        //every frame drags to another color, the alpha bar follows it
+        long time = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, 100, COLOR_BAR_Y, 0);
+        mColorSeekBar.onTouchEvent(event);
+        event.setAction(MotionEvent.ACTION_MOVE);
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            event.setLocation(20 + (i % 100) * 5, COLOR_BAR_Y);
+            mColorSeekBar.onTouchEvent(event);
+            mColorSeekBar.onDraw(mCanvas);
+        }
+
+        long allocated = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            event.setLocation(20 + (i % 100) * 5, COLOR_BAR_Y);
+            mColorSeekBar.onTouchEvent(event);
+            mColorSeekBar.onDraw(mCanvas);
+        }
+        allocated = allocatedBytes() - allocated;
+        event.recycle();
+
+        //the smallest object is 16 bytes, anything below one byte per frame is JIT or runtime noise
+        assertEquals("bytes allocated per frame", 0, allocated / FRAMES);
+    }
+
+    @Test
+    public void onDraw_withMetricsDoesNotAllocate() {
+        mColorSeekBar.setMetricsEnabled(true);
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            mColorSeekBar.onDraw(mCanvas);
+        }
+
+        long allocated = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            mColorSeekBar.onDraw(mCanvas);
+        }
+        allocated = allocatedBytes() - allocated;
+
+        assertEquals("bytes allocated per frame", 0, allocated / FRAMES);
+        assertEquals(WARM_UP_FRAMES + FRAMES, mColorSeekBar.getMetrics().getDrawTimes().getCount());
+    }
+
+    @Test
+    public void barRenderMode_switchesToTextureAboveThreshold() {
+        assertFalse(mColorSeekBar.isBarTextureRendering());
+        mColorSeekBar.setColorSeeds(seeds(ColorSeekBar.TEXTURE_SEED_THRESHOLD + 1));
+        assertTrue(mColorSeekBar.isBarTextureRendering());
+        mColorSeekBar.setBarRenderMode(ColorSeekBar.BAR_RENDER_GRADIENT);
+        assertFalse(mColorSeekBar.isBarTextureRendering());
+        mColorSeekBar.setInterpolation(ColorGradient.INTERPOLATION_OKLAB);
+        assertTrue(mColorSeekBar.isBarTextureRendering());
+    }
+
+    @Test
+    public void onDraw_withTextureDoesNotAllocate() {
+        mColorSeekBar.setColorSeeds(seeds(1000));
+        mColorSeekBar.setColorBarPosition(40);
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            mColorSeekBar.onDraw(mCanvas);
+        }
+
+        long allocated = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            mColorSeekBar.onDraw(mCanvas);
+        }
+        allocated = allocatedBytes() - allocated;
+
+        assertEquals("bytes allocated per frame", 0, allocated / FRAMES);
+    }
+
+    @Test
+    public void barLayer_isKeptAcrossDetachUntilMemoryIsTrimmed() {
+        LayerCanvas canvas = new LayerCanvas();
+        mColorSeekBar.onDraw(canvas);
+        Bitmap layer = canvas.mLayer;
+        assertNotNull(layer);
+
+        mColorSeekBar.onDetachedFromWindow();
+        mColorSeekBar.onAttachedToWindow();
+        mColorSeekBar.onDraw(canvas);
+        assertSame(layer, canvas.mLayer);
+        assertFalse(layer.isRecycled());
+
+        mColorSeekBar.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        //a display list may still draw the old layer
+        assertFalse(layer.isRecycled());
+        mColorSeekBar.onDraw(canvas);
+        assertNotSame(layer, canvas.mLayer);
+    }
+
+    private static int[] seeds(int count) {
+        int[] seeds = new int[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = 0xFF000000 | (i * 0x9E3779) & 0xFFFFFF;
+        }
+        return seeds;
+    }
+
+    //looked up once, the lookup itself allocates
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Drops every draw call, so only the view's own work is measured.
+     */
+    static class NoOpCanvas extends Canvas {
+        @Override
+        public int save() {
+            return 1;
+        }
+
+        @Override
+        public void restoreToCount(int saveCount) {
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+        }
+
+        @Override
+        public void rotate(float degrees) {
+        }
+
+        @Override
+        public void scale(float sx, float sy) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        }
+
+        @Override
+        public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(Rect r, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        }
+
+        @Override
+        public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        }
+    }
+
+    /**
+     * Keeps the bar layer, the only bitmap drawn without a paint.
+     */
+    private static class LayerCanvas extends NoOpCanvas {
+        Bitmap mLayer;
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            if (paint == null) {
+                mLayer = bitmap;
+            }
+        }
+    }
+}
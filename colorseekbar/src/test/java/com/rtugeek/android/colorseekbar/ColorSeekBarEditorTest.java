@@ -0,0 +1,94 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorSeekBarEditorTest {
+    private FrameLayout mParent;
+    private ColorSeekBar mColorSeekBar;
+    private int mCallbackCount;
+    private int mLastColor;
+
+    @Before
+    public void setUp() {
+        mParent = new FrameLayout(RuntimeEnvironment.application);
+        mColorSeekBar = new ColorSeekBar(RuntimeEnvironment.application);
+        ColorSeekBarTestViews.layout(mParent, mColorSeekBar);
+        mColorSeekBar.setOnColorChangeListener(new ColorSeekBar.OnColorChangeListener() {
+            @Override
+            public void onColorChangeListener(int colorBarPosition, int alphaBarPosition, int color) {
+                mCallbackCount++;
+                mLastColor = color;
+            }
+
+            @Override
+            public void onColorChangeActionUp(int colorBarPosition, int alphaBarPosition, int color) {
+            }
+        });
+        mColorSeekBar.setMetricsEnabled(true);
+    }
+
+    @Test
+    public void apply_batchesIntoOneLayoutInitRebuildAndCallback() {
+        int height = mColorSeekBar.getHeight();
+        mColorSeekBar.edit()
+                .setMaxPosition(255)
+                .setShowAlphaBar(true)
+                .setThumbHeightPx(30)
+                .setColorSeeds(new int[]{0xFF000000, 0xFFFFFFFF})
+                .setColorBarPosition(300)
+                .apply();
+        assertTrue(mColorSeekBar.isLayoutRequested());
+        ColorSeekBarTestViews.layout(mParent);
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertEquals(1, metrics.getInitTimes().getCount());
+        assertEquals(1, metrics.getCacheColorsTimes().getCount());
+        assertEquals(1, metrics.getInvalidateCount());
+        assertEquals(1, mCallbackCount);
+        assertEquals(mColorSeekBar.getColor(), mLastColor);
+        assertEquals(255, mColorSeekBar.getColorBarPosition());
+        assertEquals(30, mColorSeekBar.getThumbHeight());
+        assertTrue(mColorSeekBar.getHeight() > height);
+        assertEquals(256, mColorSeekBar.getColorCount());
+    }
+
+    @Test
+    public void apply_initsOnceWhenTheSizeStaysTheSame() {
+        mColorSeekBar.edit().setBarMarginPx(mColorSeekBar.getBarMargin() + 4).apply();
+        FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) mColorSeekBar.getLayoutParams();
+        params.height = mColorSeekBar.getHeight();
+        ColorSeekBarTestViews.layout(mParent);
+        assertEquals(1, mColorSeekBar.getMetrics().getInitTimes().getCount());
+        assertEquals(0, mCallbackCount);
+    }
+
+    @Test
+    public void apply_skipsUnchangedProperties() {
+        mColorSeekBar.edit()
+                .setMaxPosition(mColorSeekBar.getMaxValue())
+                .setShowAlphaBar(mColorSeekBar.isShowAlphaBar())
+                .setBarHeightPx(mColorSeekBar.getBarHeight())
+                .setColorBarPosition(mColorSeekBar.getColorBarPosition())
+                .setColorSeeds(mColorSeekBar.getColorSeeds())
+                .apply();
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertFalse(mColorSeekBar.isLayoutRequested());
+        assertEquals(0, metrics.getInvalidateCount());
+        assertEquals(0, metrics.getCacheColorsTimes().getCount());
+        assertEquals(0, mCallbackCount);
+    }
+}
@@ -0,0 +1,113 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class ColorSeekBarMetricsTest {
+    //on the color bar at mdpi, below the 16dp thumb's top half
+    private static final float BAR_Y = 9;
+
+    private ColorSeekBar mColorSeekBar;
+
+    @Before
+    public void setUp() {
+        mColorSeekBar = new ColorSeekBar(RuntimeEnvironment.application);
+        ColorSeekBarTestViews.layout(mColorSeekBar);
+        mColorSeekBar.setOnColorChangeListener(new ColorSeekBar.OnColorChangeListener() {
+            @Override
+            public void onColorChangeListener(int colorBarPosition, int alphaBarPosition, int color) {
+            }
+
+            @Override
+            public void onColorChangeActionUp(int colorBarPosition, int alphaBarPosition, int color) {
+            }
+        });
+    }
+
+    @Test
+    public void disabled_recordsNothing() {
+        mColorSeekBar.onDraw(new Canvas());
+        mColorSeekBar.setMaxPosition(200);
+        mColorSeekBar.invalidate();
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertEquals(0, metrics.getDrawTimes().getCount());
+        assertEquals(0, metrics.getCacheColorsTimes().getCount());
+        assertEquals(0, metrics.getInvalidateCount());
+    }
+
+    @Test
+    public void drawAndRebuilds_areRecorded() {
+        mColorSeekBar.setMetricsEnabled(true);
+        Canvas canvas = new Canvas();
+        for (int i = 0; i < 3; i++) {
+            mColorSeekBar.onDraw(canvas);
+        }
+        mColorSeekBar.setMaxPosition(200);
+        mColorSeekBar.setColorSeeds(new int[]{0xFF000000, 0xFFFFFFFF});
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertEquals(3, metrics.getDrawTimes().getCount());
+        assertTrue(metrics.getDrawTimes().getTotalNanos() > 0);
+        assertEquals(1, metrics.getInitTimes().getCount());
+        assertEquals(2, metrics.getCacheColorsTimes().getCount());
+        assertEquals(201 * 4, metrics.getTableBytes());
+        assertEquals(2, metrics.getInvalidateCount());
+    }
+
+    @Test
+    public void touch_recordsLatencyDispatchAndPartialInvalidates() {
+        mColorSeekBar.setMetricsEnabled(true);
+        long time = SystemClock.uptimeMillis();
+        touch(MotionEvent.ACTION_DOWN, time, 50);
+        touch(MotionEvent.ACTION_MOVE, time, 100);
+        touch(MotionEvent.ACTION_MOVE, time, 150);
+        touch(MotionEvent.ACTION_UP, time, 150);
+
+        ColorSeekBarMetrics metrics = mColorSeekBar.getMetrics();
+        assertEquals(3, metrics.getDispatchTimes().getCount());
+        assertEquals(3, metrics.getTouchLatencies().getCount());
+        assertEquals(2, metrics.getPartialInvalidateCount());
+
+        mColorSeekBar.resetMetrics();
+        assertEquals(0, metrics.getDispatchTimes().getCount());
+        assertEquals(0, metrics.getTouchLatencies().getCount());
+        assertEquals(0, metrics.getPartialInvalidateCount());
+    }
+
+    @Test
+    public void histogram_bucketsByPowerOfTwo() {
+        ColorSeekBarMetrics.Histogram histogram = new ColorSeekBarMetrics.Histogram();
+        histogram.record(0);
+        histogram.record(1000);
+        histogram.record(1500);
+        histogram.record(1000000);
+        assertEquals(4, histogram.getCount());
+        assertEquals(1, histogram.getBucketCount(0));
+        //1000 and 1500 are in [512, 1024) and [1024, 2048)
+        assertEquals(1, histogram.getBucketCount(9));
+        assertEquals(1, histogram.getBucketCount(10));
+        assertEquals(1000000, histogram.getMaxNanos());
+        assertEquals(2048, histogram.getPercentileNanos(75));
+        assertEquals(1000000, histogram.getPercentileNanos(100));
+        assertEquals(1002500 / 4, histogram.getMeanNanos());
+    }
+
+    private void touch(int action, long time, float x) {
+        MotionEvent event = MotionEvent.obtain(time, time, action, x, BAR_Y, 0);
+        mColorSeekBar.onTouchEvent(event);
+        event.recycle();
+    }
+}
@@ -0,0 +1,42 @@
+package com.rtugeek.android.colorseekbar;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+/**
+ * Lays bars out the way the tests expect them: full width of a 480px wide parent at mdpi, wrapped height.
+ */
+final class ColorSeekBarTestViews {
+    static final int WIDTH = 480;
+    static final int MAX_HEIGHT = 800;
+
+    private ColorSeekBarTestViews() {
+    }
+
+    /**
+     * @return a new FrameLayout holding colorSeekBar, measured and laid out
+     */
+    static FrameLayout layout(ColorSeekBar colorSeekBar) {
+        FrameLayout parent = new FrameLayout(colorSeekBar.getContext());
+        layout(parent, colorSeekBar);
+        return parent;
+    }
+
+    /**
+     * Add colorSeekBar to parent, then measure and lay out parent.
+     */
+    static void layout(ViewGroup parent, ColorSeekBar colorSeekBar) {
+        parent.addView(colorSeekBar, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        layout(parent);
+    }
+
+    /**
+     * Measure and lay out parent again, e.g. after a layout request.
+     */
+    static void layout(ViewGroup parent) {
+        parent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(MAX_HEIGHT, View.MeasureSpec.AT_MOST));
+        parent.layout(0, 0, parent.getMeasuredWidth(), parent.getMeasuredHeight());
+    }
+}